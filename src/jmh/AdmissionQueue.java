@@ -0,0 +1,121 @@
+import benchmark.AdmissionBenchmark;
+
+import java.util.LinkedList;
+
+public class AdmissionQueue implements AdmissionBenchmark.Queue, AdmissionView {
+    
+    private static class Entry extends WaitingList.Node<Entry> {
+        final boolean isWriter;
+        final long ticket;
+        
+        Entry(boolean isWriter, long ticket) {
+            this.isWriter = isWriter;
+            this.ticket = ticket;
+        }
+    }
+    
+    private final boolean scan;
+    private final AdmissionPolicy policy = new FifoPolicy();
+    private final WaitingList<Entry> waitingReaders = new WaitingList<>();
+    private final WaitingList<Entry> waitingWriters = new WaitingList<>();
+    private final LinkedList<Entry> waitingQueue = new LinkedList<>();
+    private long nextTicket = 0;
+    
+    public AdmissionQueue(String admission, int depth) {
+        switch (admission) {
+            case "bilety":
+                scan = false;
+                break;
+            case "przeglad":
+                scan = true;
+                break;
+            default:
+                throw new IllegalArgumentException("Nieznany sposób wpuszczania: " + admission);
+        }
+        for (int i = 0; i < depth; i++) {
+            enqueue(new Entry(false, nextTicket++));
+        }
+    }
+    
+    @Override
+    public boolean arrive() {
+        Entry reader = new Entry(false, nextTicket++);
+        enqueue(reader);
+        boolean allowed = scan ? canReaderEnterByScan(reader) : policy.canReaderEnter(this, reader.ticket);
+        if (scan) {
+            waitingQueue.removeLast();
+        } else {
+            waitingReaders.remove(reader);
+        }
+        return allowed;
+    }
+    
+    private void enqueue(Entry entry) {
+        if (scan) {
+            waitingQueue.addLast(entry);
+        } else {
+            (entry.isWriter ? waitingWriters : waitingReaders).addLast(entry);
+        }
+    }
+    
+    private boolean canReaderEnterByScan(Entry reader) {
+        for (Entry entry : waitingQueue) {
+            if (entry == reader) {
+                return true;
+            }
+            if (entry.isWriter) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static long ticketOf(Entry oldest) {
+        return oldest == null ? AdmissionPolicy.NONE_WAITING : oldest.ticket;
+    }
+    
+    @Override
+    public int getActiveReaders() {
+        return 0;
+    }
+    
+    @Override
+    public boolean isWriterActive() {
+        return false;
+    }
+    
+    @Override
+    public int getMaxReaders() {
+        return Integer.MAX_VALUE;
+    }
+    
+    @Override
+    public long getOldestReaderTicket() {
+        return ticketOf(waitingReaders.peekFirst());
+    }
+    
+    @Override
+    public long getOldestWriterTicket() {
+        return ticketOf(waitingWriters.peekFirst());
+    }
+    
+    @Override
+    public long getNextTicket() {
+        return nextTicket;
+    }
+    
+    @Override
+    public long getNanoTime() {
+        return 0;
+    }
+    
+    @Override
+    public long getOldestReaderExpectedNanos() {
+        return 0;
+    }
+    
+    @Override
+    public long getReadGroupDrainNanos() {
+        return 0;
+    }
+}
@@ -0,0 +1,37 @@
+import benchmark.LockBenchmark;
+
+import java.util.function.LongSupplier;
+
+public class LibraryRoom implements LockBenchmark.Room {
+    
+    private final Library library;
+    
+    public LibraryRoom(int maxReaders, boolean readBiased) {
+        this.library = new Library(EventLog.silent(), readBiased, maxReaders, new FifoPolicy());
+    }
+    
+    @Override
+    public long read(LongSupplier body) {
+        Permit permit = library.startReading("Czytelnik");
+        try {
+            return body.getAsLong();
+        } finally {
+            permit.release();
+        }
+    }
+    
+    @Override
+    public long write(LongSupplier body) {
+        Permit permit = library.startWriting("Pisarz");
+        try {
+            return body.getAsLong();
+        } finally {
+            permit.release();
+        }
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return library.isEmpty();
+    }
+}
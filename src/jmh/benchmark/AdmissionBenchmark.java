@@ -0,0 +1,65 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdmissionBenchmark {
+    
+    private static final String ADMISSION_QUEUE = "AdmissionQueue";
+    
+    public interface Queue {
+        boolean arrive();
+    }
+    
+    @Param({"bilety", "przeglad"})
+    private String admission;
+    
+    @Param({"1", "16", "256", "4096"})
+    private int depth;
+    
+    private Queue queue;
+    
+    @Setup
+    public void setUp() {
+        try {
+            queue = (Queue) Class.forName(ADMISSION_QUEUE).getConstructor(String.class, int.class)
+                    .newInstance(admission, depth);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Nie można utworzyć kolejki do pomiaru", e);
+        }
+    }
+    
+    @Benchmark
+    public boolean admit() {
+        return queue.arrive();
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AdmissionBenchmark.class.getName())
+                .result("target/jmh-wpuszczanie.json")
+                .resultFormat(ResultFormatType.JSON)
+                .build()).run();
+    }
+}
@@ -0,0 +1,244 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LockBenchmark {
+    
+    private static final int MAX_READERS = 5;
+    private static final int[] DEFAULT_THREADS = {1, 2, 4, 8};
+    private static final String LIBRARY_ROOM = "LibraryRoom";
+    
+    public interface Room {
+        long read(LongSupplier body);
+        
+        long write(LongSupplier body);
+        
+        default boolean isEmpty() {
+            return true;
+        }
+    }
+    
+    private static class ReadWriteLockRoom implements Room {
+        private final ReentrantReadWriteLock lock;
+        private final Semaphore seats;
+        
+        ReadWriteLockRoom(boolean fair) {
+            this.lock = new ReentrantReadWriteLock(fair);
+            this.seats = new Semaphore(MAX_READERS, fair);
+        }
+        
+        @Override
+        public long read(LongSupplier body) {
+            seats.acquireUninterruptibly();
+            lock.readLock().lock();
+            try {
+                return body.getAsLong();
+            } finally {
+                lock.readLock().unlock();
+                seats.release();
+            }
+        }
+        
+        @Override
+        public long write(LongSupplier body) {
+            lock.writeLock().lock();
+            try {
+                return body.getAsLong();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+    
+    private static class StampedLockRoom implements Room {
+        private final StampedLock lock = new StampedLock();
+        private final Semaphore seats = new Semaphore(MAX_READERS);
+        
+        @Override
+        public long read(LongSupplier body) {
+            seats.acquireUninterruptibly();
+            long stamp = lock.readLock();
+            try {
+                return body.getAsLong();
+            } finally {
+                lock.unlockRead(stamp);
+                seats.release();
+            }
+        }
+        
+        @Override
+        public long write(LongSupplier body) {
+            long stamp = lock.writeLock();
+            try {
+                return body.getAsLong();
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+    
+    private static class SemaphoreRoom implements Room {
+        private final Semaphore seats = new Semaphore(MAX_READERS, true);
+        private final ReentrantLock writers = new ReentrantLock();
+        
+        @Override
+        public long read(LongSupplier body) {
+            seats.acquireUninterruptibly();
+            try {
+                return body.getAsLong();
+            } finally {
+                seats.release();
+            }
+        }
+        
+        @Override
+        public long write(LongSupplier body) {
+            writers.lock();
+            try {
+                seats.acquireUninterruptibly(MAX_READERS);
+                try {
+                    return body.getAsLong();
+                } finally {
+                    seats.release(MAX_READERS);
+                }
+            } finally {
+                writers.unlock();
+            }
+        }
+    }
+    
+    @Param({"czytelnia", "czytelnia-stronnicza", "rrwl-uczciwy", "rrwl", "stamped", "semafor"})
+    private String lock;
+    
+    @Param({"100", "90", "50", "0"})
+    private int readPercent;
+    
+    @Param({"100"})
+    private int work;
+    
+    private Room room;
+    private long value;
+    private LongSupplier reader;
+    private LongSupplier writer;
+    
+    @Setup
+    public void setUp() {
+        room = createRoom(lock);
+        value = 0;
+        reader = () -> {
+            Blackhole.consumeCPU(work);
+            return value;
+        };
+        writer = () -> {
+            Blackhole.consumeCPU(work);
+            return ++value;
+        };
+    }
+    
+    @TearDown
+    public void tearDown() {
+        if (!room.isEmpty()) {
+            throw new IllegalStateException("Czytelnia nie jest pusta po pomiarze: " + lock);
+        }
+    }
+    
+    private static Room createRoom(String name) {
+        switch (name) {
+            case "czytelnia":
+                return createLibraryRoom(false);
+            case "czytelnia-stronnicza":
+                return createLibraryRoom(true);
+            case "rrwl-uczciwy":
+                return new ReadWriteLockRoom(true);
+            case "rrwl":
+                return new ReadWriteLockRoom(false);
+            case "stamped":
+                return new StampedLockRoom();
+            case "semafor":
+                return new SemaphoreRoom();
+            default:
+                throw new IllegalArgumentException("Nieznana blokada: " + name);
+        }
+    }
+    
+    private static Room createLibraryRoom(boolean readBiased) {
+        try {
+            return (Room) Class.forName(LIBRARY_ROOM).getConstructor(int.class, boolean.class)
+                    .newInstance(MAX_READERS, readBiased);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Nie można utworzyć czytelni do pomiaru", e);
+        }
+    }
+    
+    @Benchmark
+    public long access() {
+        if (ThreadLocalRandom.current().nextInt(100) < readPercent) {
+            return room.read(reader);
+        }
+        return room.write(writer);
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        int[] threadCounts = DEFAULT_THREADS;
+        if (args != null && args.length > 0) {
+            threadCounts = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                threadCounts[i] = parseThreads(args[i]);
+            }
+        }
+        
+        for (int threads : threadCounts) {
+            new Runner(new OptionsBuilder()
+                    .include(LockBenchmark.class.getName())
+                    .threads(threads)
+                    .mode(Mode.Throughput)
+                    .mode(Mode.AverageTime)
+                    .mode(Mode.SampleTime)
+                    .result("target/jmh-" + threads + ".json")
+                    .resultFormat(ResultFormatType.JSON)
+                    .build()).run();
+        }
+    }
+    
+    private static int parseThreads(String value) {
+        try {
+            int threads = Integer.parseInt(value);
+            if (threads > 0) {
+                return threads;
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Nieprawidłowa liczba wątków: " + value);
+        }
+        throw new IllegalArgumentException("Liczba wątków musi być dodatnia: " + value);
+    }
+}
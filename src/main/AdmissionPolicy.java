@@ -0,0 +1,37 @@
+public interface AdmissionPolicy {
+    
+    long NONE_WAITING = Long.MAX_VALUE;
+    
+    boolean canReaderEnter(AdmissionView view, long ticket);
+    
+    boolean canWriterEnter(AdmissionView view, long ticket);
+    
+    default void onAdmit(AdmissionView view, boolean writer, long ticket) {
+    }
+    
+    default void onWriterExit(AdmissionView view) {
+    }
+    
+    default boolean usesReadTimes() {
+        return false;
+    }
+    
+    String getName();
+    
+    static AdmissionPolicy byName(String name) {
+        switch (name.toLowerCase()) {
+            case "fifo":
+                return new FifoPolicy();
+            case "czytelnicy":
+                return new ReaderPreferencePolicy();
+            case "pisarze":
+                return new WriterPreferencePolicy();
+            case "fazy":
+                return new PhaseFairPolicy();
+            case "obejscie":
+                return new BoundedBypassPolicy();
+            default:
+                throw new IllegalArgumentException("Nieznana polityka wpuszczania: " + name);
+        }
+    }
+}
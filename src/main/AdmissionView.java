@@ -0,0 +1,20 @@
+public interface AdmissionView {
+    
+    int getActiveReaders();
+    
+    boolean isWriterActive();
+    
+    int getMaxReaders();
+    
+    long getOldestReaderTicket();
+    
+    long getOldestWriterTicket();
+    
+    long getNextTicket();
+    
+    long getNanoTime();
+    
+    long getOldestReaderExpectedNanos();
+    
+    long getReadGroupDrainNanos();
+}
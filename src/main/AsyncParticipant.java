@@ -0,0 +1,104 @@
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncParticipant {
+    
+    private final Library library;
+    private final String name;
+    private final boolean writer;
+    private final int minTime;
+    private final int maxTime;
+    private final int sleepBetweenOperations;
+    private final ScheduledExecutorService scheduler;
+    private final Random random = new Random();
+    private final AtomicInteger visits = new AtomicInteger();
+    private volatile boolean running = false;
+    private volatile CompletableFuture<Permit> pending;
+    
+    public AsyncParticipant(Library library, String name, boolean writer, ScheduledExecutorService scheduler) {
+        this(library, name, writer, 1000, 3000, 500, scheduler);
+    }
+    
+    public AsyncParticipant(Library library, String name, boolean writer, int minTime, int maxTime,
+                            int sleepBetweenOperations, ScheduledExecutorService scheduler) {
+        this.library = library;
+        this.name = name;
+        this.writer = writer;
+        this.minTime = minTime;
+        this.maxTime = maxTime;
+        this.sleepBetweenOperations = sleepBetweenOperations;
+        this.scheduler = scheduler;
+    }
+    
+    public void start() {
+        running = true;
+        scheduler.execute(this::requestEntry);
+    }
+    
+    public void stopRunning() {
+        running = false;
+        CompletableFuture<Permit> request = pending;
+        if (request != null) {
+            request.cancel(false);
+        }
+    }
+    
+    private void requestEntry() {
+        if (!running) {
+            return;
+        }
+        
+        CompletableFuture<Permit> request = writer ? library.acquireWriteAsync(name) : library.acquireReadAsync(name);
+        pending = request;
+        request.thenAccept(this::enter);
+    }
+    
+    private void enter(Permit permit) {
+        int time = minTime + random.nextInt(maxTime - minTime + 1);
+        try {
+            scheduler.schedule(() -> leave(permit), time, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            permit.release();
+        }
+    }
+    
+    private void leave(Permit permit) {
+        permit.release();
+        visits.incrementAndGet();
+        
+        if (!running) {
+            return;
+        }
+        
+        int pause = sleepBetweenOperations > 0 ? random.nextInt(sleepBetweenOperations) : 0;
+        try {
+            scheduler.schedule(this::requestEntry, pause, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            running = false;
+        }
+    }
+    
+    public boolean isRunning() {
+        return running;
+    }
+    
+    public int getVisits() {
+        return visits.get();
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public boolean isWriter() {
+        return writer;
+    }
+    
+    public Library getLibrary() {
+        return library;
+    }
+}
@@ -0,0 +1,67 @@
+public class BoundedBypassPolicy implements AdmissionPolicy {
+    
+    private static final int DEFAULT_MAX_BYPASS = 5;
+    
+    private final int maxBypass;
+    private long blockedWriterTicket = NONE_WAITING;
+    private int bypassed = 0;
+    
+    public BoundedBypassPolicy() {
+        this(DEFAULT_MAX_BYPASS);
+    }
+    
+    public BoundedBypassPolicy(int maxBypass) {
+        if (maxBypass < 0) {
+            throw new IllegalArgumentException("Limit wyprzedzeń nie może być ujemny: " + maxBypass);
+        }
+        this.maxBypass = maxBypass;
+    }
+    
+    @Override
+    public boolean canReaderEnter(AdmissionView view, long ticket) {
+        long writerTicket = view.getOldestWriterTicket();
+        if (ticket < writerTicket) {
+            return true;
+        }
+        
+        int used = writerTicket == blockedWriterTicket ? bypassed : 0;
+        return used < maxBypass && view.getActiveReaders() > 0 && finishesBeforeDrain(view);
+    }
+    
+    private static boolean finishesBeforeDrain(AdmissionView view) {
+        long expected = view.getOldestReaderExpectedNanos();
+        return expected > 0 && view.getNanoTime() + expected <= view.getReadGroupDrainNanos();
+    }
+    
+    @Override
+    public boolean canWriterEnter(AdmissionView view, long ticket) {
+        return ticket < view.getOldestReaderTicket();
+    }
+    
+    @Override
+    public void onAdmit(AdmissionView view, boolean writer, long ticket) {
+        long writerTicket = view.getOldestWriterTicket();
+        if (writer || ticket < writerTicket) {
+            return;
+        }
+        if (writerTicket != blockedWriterTicket) {
+            blockedWriterTicket = writerTicket;
+            bypassed = 0;
+        }
+        bypassed++;
+    }
+    
+    @Override
+    public boolean usesReadTimes() {
+        return true;
+    }
+    
+    public int getMaxBypass() {
+        return maxBypass;
+    }
+    
+    @Override
+    public String getName() {
+        return "obejscie";
+    }
+}
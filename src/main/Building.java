@@ -0,0 +1,169 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class Building {
+    
+    private static final int NO_ROOM = -1;
+    private static final int NO_SHELF = -1;
+    
+    public static class Grant implements AutoCloseable {
+        private final List<IntentionLock> locks = new ArrayList<>();
+        private final List<LockMode> modes = new ArrayList<>();
+        private final AtomicBoolean released = new AtomicBoolean(false);
+        private Permit permit;
+        
+        private Grant() {
+        }
+        
+        private boolean hold(IntentionLock lock, LockMode mode) {
+            if (!lock.acquire(mode)) {
+                releaseHeld();
+                return false;
+            }
+            locks.add(lock);
+            modes.add(mode);
+            return true;
+        }
+        
+        private void releaseHeld() {
+            if (permit != null) {
+                permit.release();
+            }
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                locks.get(i).release(modes.get(i));
+            }
+        }
+        
+        public void release() {
+            if (!released.compareAndSet(false, true)) {
+                throw new IllegalStateException("Dostęp został już zwolniony");
+            }
+            releaseHeld();
+        }
+        
+        @Override
+        public void close() {
+            release();
+        }
+        
+        public List<LockMode> getModes() {
+            return new ArrayList<>(modes);
+        }
+        
+        public Permit getPermit() {
+            return permit;
+        }
+        
+        public boolean isReleased() {
+            return released.get();
+        }
+    }
+    
+    private final IntentionLock building;
+    private final IntentionLock[] rooms;
+    private final Library[][] shelves;
+    
+    public Building(int roomCount, int shelvesPerRoom, int maxReaders) {
+        if (roomCount < 1 || shelvesPerRoom < 1) {
+            throw new IllegalArgumentException("Nieprawidłowy układ budynku: " + roomCount + "x" + shelvesPerRoom);
+        }
+        this.building = new IntentionLock("budynek");
+        this.rooms = new IntentionLock[roomCount];
+        this.shelves = new Library[roomCount][shelvesPerRoom];
+        for (int room = 0; room < roomCount; room++) {
+            rooms[room] = new IntentionLock("pokój-" + room);
+            for (int shelf = 0; shelf < shelvesPerRoom; shelf++) {
+                shelves[room][shelf] = new Library(EventLog.silent(), false, maxReaders);
+            }
+        }
+    }
+    
+    public Grant readShelf(int room, int shelf, String readerName) {
+        checkShelf(room, shelf);
+        return acquire(LockMode.IS, room, LockMode.IS, shelf, false, readerName);
+    }
+    
+    public Grant writeShelf(int room, int shelf, String writerName) {
+        checkShelf(room, shelf);
+        return acquire(LockMode.IX, room, LockMode.IX, shelf, true, writerName);
+    }
+    
+    public Grant readRoom(int room, String readerName) {
+        checkRoom(room);
+        return acquire(LockMode.IS, room, LockMode.S, NO_SHELF, false, readerName);
+    }
+    
+    public Grant writeRoom(int room, String writerName) {
+        checkRoom(room);
+        return acquire(LockMode.IX, room, LockMode.X, NO_SHELF, true, writerName);
+    }
+    
+    public Grant readRoomWriteShelf(int room, int shelf, String writerName) {
+        checkShelf(room, shelf);
+        return acquire(LockMode.IX, room, LockMode.SIX, shelf, true, writerName);
+    }
+    
+    public Grant readBuilding(String readerName) {
+        return acquire(LockMode.S, NO_ROOM, null, NO_SHELF, false, readerName);
+    }
+    
+    public Grant writeBuilding(String writerName) {
+        return acquire(LockMode.X, NO_ROOM, null, NO_SHELF, true, writerName);
+    }
+    
+    private Grant acquire(LockMode buildingMode, int room, LockMode roomMode, int shelf, boolean isWriter, String name) {
+        Grant grant = new Grant();
+        if (!grant.hold(building, buildingMode)) {
+            return null;
+        }
+        if (room != NO_ROOM && !grant.hold(rooms[room], roomMode)) {
+            return null;
+        }
+        if (shelf != NO_SHELF) {
+            Library library = shelves[room][shelf];
+            Permit permit = isWriter ? library.startWriting(name) : library.startReading(name);
+            if (permit == null) {
+                grant.releaseHeld();
+                return null;
+            }
+            grant.permit = permit;
+        }
+        return grant;
+    }
+    
+    private void checkRoom(int room) {
+        if (room < 0 || room >= rooms.length) {
+            throw new IllegalArgumentException("Nieznany pokój: " + room);
+        }
+    }
+    
+    private void checkShelf(int room, int shelf) {
+        checkRoom(room);
+        if (shelf < 0 || shelf >= shelves[0].length) {
+            throw new IllegalArgumentException("Nieznana półka: " + shelf);
+        }
+    }
+    
+    public IntentionLock getBuildingLock() {
+        return building;
+    }
+    
+    public IntentionLock getRoomLock(int room) {
+        checkRoom(room);
+        return rooms[room];
+    }
+    
+    public Library getShelf(int room, int shelf) {
+        checkShelf(room, shelf);
+        return shelves[room][shelf];
+    }
+    
+    public int getRoomCount() {
+        return rooms.length;
+    }
+    
+    public int getShelfCount() {
+        return shelves[0].length;
+    }
+}
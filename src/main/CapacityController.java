@@ -0,0 +1,120 @@
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class CapacityController implements Runnable {
+    
+    public enum Strategy {
+        AIMD,
+        GRADIENT
+    }
+    
+    private static final double AIMD_BACKOFF = 0.9;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final double BASELINE_DRIFT = 1.05;
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double PEAK_DECAY = 0.95;
+    private static final double THROUGHPUT_FLOOR = 0.8;
+    
+    private final Library library;
+    private final Strategy strategy;
+    private final int minReaders;
+    private final int maxReaders;
+    
+    private long lastTimed;
+    private long lastReadNanos;
+    private long lastCompleted;
+    private long lastSampleNanos;
+    private double baselineLatency = Double.POSITIVE_INFINITY;
+    private double peakThroughput = 0.0;
+    private double estimatedLimit;
+    
+    public CapacityController(Library library, Strategy strategy, int minReaders, int maxReaders) {
+        if (minReaders < 1 || maxReaders < minReaders) {
+            throw new IllegalArgumentException("Nieprawidłowy zakres pojemności: " + minReaders + "-" + maxReaders);
+        }
+        this.library = library;
+        this.strategy = strategy;
+        this.minReaders = minReaders;
+        this.maxReaders = maxReaders;
+        library.enableReadTracking();
+        this.lastTimed = library.getTimedReads();
+        this.lastReadNanos = library.getTotalReadNanos();
+        this.lastCompleted = library.getCompletedReads();
+        this.lastSampleNanos = library.nanoTime();
+        this.estimatedLimit = library.getMaxReaders();
+    }
+    
+    public ScheduledFuture<?> start(ScheduledExecutorService scheduler, long period, TimeUnit unit) {
+        return scheduler.scheduleAtFixedRate(this, period, period, unit);
+    }
+    
+    @Override
+    public void run() {
+        long timed = library.getTimedReads();
+        long nanos = library.getTotalReadNanos();
+        long completed = library.getCompletedReads();
+        long now = library.nanoTime();
+        long timedDelta = timed - lastTimed;
+        long nanosDelta = nanos - lastReadNanos;
+        long completedDelta = completed - lastCompleted;
+        long elapsed = now - lastSampleNanos;
+        lastTimed = timed;
+        lastReadNanos = nanos;
+        lastCompleted = completed;
+        lastSampleNanos = now;
+        
+        if (timedDelta > 0 && elapsed > 0) {
+            update((double) nanosDelta / timedDelta, completedDelta * 1e9 / elapsed, library.getQueueSize());
+        }
+    }
+    
+    void update(double latencyNanos, double throughput, int queued) {
+        baselineLatency = Math.min(latencyNanos, baselineLatency * BASELINE_DRIFT);
+        peakThroughput = Math.max(throughput, peakThroughput * PEAK_DECAY);
+        double goodput = queued > 0 && peakThroughput > 0 ? throughput / peakThroughput : 1.0;
+        
+        int current = library.getMaxReaders();
+        int next = strategy == Strategy.AIMD
+                ? aimd(current, latencyNanos, goodput, queued)
+                : gradient(current, latencyNanos, goodput, queued);
+        next = Math.max(minReaders, Math.min(maxReaders, next));
+        
+        if (next != current) {
+            library.setMaxReaders(next);
+        }
+    }
+    
+    private int aimd(int current, double latencyNanos, double goodput, int queued) {
+        if (latencyNanos > baselineLatency * LATENCY_TOLERANCE || goodput < THROUGHPUT_FLOOR) {
+            return Math.max(minReaders, Math.min(current - 1, (int) Math.floor(current * AIMD_BACKOFF)));
+        }
+        if (queued > 0) {
+            return current + 1;
+        }
+        return current;
+    }
+    
+    private int gradient(int current, double latencyNanos, double goodput, int queued) {
+        double gradient = Math.max(MIN_GRADIENT, Math.min(Math.min(1.0, goodput), baselineLatency / latencyNanos));
+        double headroom = queued > 0 ? Math.sqrt(current) : 0.0;
+        double target = current * gradient + headroom;
+        
+        estimatedLimit = estimatedLimit * (1.0 - SMOOTHING) + target * SMOOTHING;
+        estimatedLimit = Math.max(minReaders, Math.min(maxReaders, estimatedLimit));
+        return (int) Math.round(estimatedLimit);
+    }
+    
+    public Strategy getStrategy() {
+        return strategy;
+    }
+    
+    public int getMinReaders() {
+        return minReaders;
+    }
+    
+    public int getMaxReaders() {
+        return maxReaders;
+    }
+}
@@ -0,0 +1,406 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+public class EventLog {
+    
+    public enum Level {
+        SILENT,
+        EVENTS,
+        STATUS
+    }
+    
+    static final byte REQUEST = 0;
+    static final byte ENTER = 1;
+    static final byte EXIT = 2;
+    static final byte ABANDON = 3;
+    static final byte CAPACITY = 4;
+    static final byte UPGRADE = 5;
+    static final byte DOWNGRADE = 6;
+    
+    private static final int DEFAULT_CAPACITY = 4096;
+    private static final long IDLE_NANOS = 1_000_000_000L;
+    
+    private static final EventLog SILENT_LOG = new EventLog(System.out, Level.SILENT, 1, 1);
+    
+    private final PrintStream out;
+    private final Level level;
+    private final int sampleEvery;
+    private final int capacity;
+    private final LongSupplier clock;
+    private final boolean synchronous;
+    private final long startNanos;
+    
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLongArray published;
+    private final byte[] types;
+    private final boolean[] writers;
+    private final String[] names;
+    private final long[] timestamps;
+    private final int[] activeReaders;
+    private final int[] activeWriters;
+    private final int[] queued;
+    private final int[] maxReaders;
+    private volatile long consumed = 0;
+    private volatile Thread consumer;
+    private volatile boolean sleeping = false;
+    private volatile boolean closed = false;
+    private final AtomicLong dropped = new AtomicLong();
+    private long reportedDrops = 0;
+    
+    private final List<String> readersInside = new ArrayList<>();
+    private String writerInside;
+    private final List<String> waitingNames = new ArrayList<>();
+    private final List<Boolean> waitingRoles = new ArrayList<>();
+    
+    public EventLog(PrintStream out, Level level, int sampleEvery) {
+        this(out, level, sampleEvery, DEFAULT_CAPACITY);
+    }
+    
+    public EventLog(PrintStream out, Level level, int sampleEvery, int capacity) {
+        this(out, level, sampleEvery, capacity, System::nanoTime, false);
+    }
+    
+    private EventLog(PrintStream out, Level level, int sampleEvery, int capacity, LongSupplier clock,
+                     boolean synchronous) {
+        if (sampleEvery < 1) {
+            throw new IllegalArgumentException("Próbkowanie musi być dodatnie: " + sampleEvery);
+        }
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Rozmiar bufora musi być potęgą dwójki: " + capacity);
+        }
+        this.out = out;
+        this.level = level;
+        this.sampleEvery = sampleEvery;
+        this.capacity = capacity;
+        this.clock = clock;
+        this.synchronous = synchronous;
+        this.startNanos = clock.getAsLong();
+        this.published = new AtomicLongArray(capacity);
+        this.types = new byte[capacity];
+        this.writers = new boolean[capacity];
+        this.names = new String[capacity];
+        this.timestamps = new long[capacity];
+        this.activeReaders = new int[capacity];
+        this.activeWriters = new int[capacity];
+        this.queued = new int[capacity];
+        this.maxReaders = new int[capacity];
+    }
+    
+    public static EventLog console() {
+        return new EventLog(System.out, Level.STATUS, 1);
+    }
+    
+    static EventLog synchronous(PrintStream out, Level level, int sampleEvery, LongSupplier clock) {
+        return new EventLog(out, level, sampleEvery, 1, clock, true);
+    }
+    
+    public static EventLog silent() {
+        return SILENT_LOG;
+    }
+    
+    public boolean isSilent() {
+        return level == Level.SILENT;
+    }
+    
+    void publish(byte type, String name, boolean writer, int readers, int writersInside, int waiting, int limit) {
+        if (level == Level.SILENT || closed) {
+            return;
+        }
+        
+        long timestamp = clock.getAsLong();
+        if (synchronous) {
+            synchronized (this) {
+                long sequence = claimed.getAndIncrement();
+                emit(sequence, type, name, writer, timestamp, readers, writersInside, waiting, limit);
+                consumed = sequence + 1;
+            }
+            return;
+        }
+        
+        long sequence = claimed.get();
+        while (true) {
+            if (sequence - consumed >= capacity) {
+                dropped.incrementAndGet();
+                return;
+            }
+            if (claimed.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+            sequence = claimed.get();
+        }
+        
+        int slot = (int) (sequence & (capacity - 1));
+        types[slot] = type;
+        writers[slot] = writer;
+        names[slot] = name;
+        timestamps[slot] = timestamp;
+        activeReaders[slot] = readers;
+        activeWriters[slot] = writersInside;
+        queued[slot] = waiting;
+        maxReaders[slot] = limit;
+        published.set(slot, sequence + 1);
+        
+        Thread thread = consumer;
+        if (thread == null) {
+            startConsumer();
+        } else if (sleeping) {
+            LockSupport.unpark(thread);
+        }
+    }
+    
+    private synchronized void startConsumer() {
+        if (consumer != null) {
+            return;
+        }
+        Thread thread = new Thread(this::consume, "event-log");
+        thread.setDaemon(true);
+        consumer = thread;
+        thread.start();
+    }
+    
+    private synchronized boolean retire(long sequence) {
+        consumer = null;
+        if (claimed.get() != sequence && !closed) {
+            consumer = Thread.currentThread();
+            return false;
+        }
+        return true;
+    }
+    
+    private void consume() {
+        while (true) {
+            long sequence = consumed;
+            int slot = (int) (sequence & (capacity - 1));
+            if (published.get(slot) != sequence + 1) {
+                if (idle(slot, sequence) && retire(sequence)) {
+                    reportDrops();
+                    out.flush();
+                    return;
+                }
+                continue;
+            }
+            
+            byte type = types[slot];
+            boolean writer = writers[slot];
+            String name = names[slot];
+            long timestamp = timestamps[slot];
+            int readers = activeReaders[slot];
+            int writersInside = activeWriters[slot];
+            int waiting = queued[slot];
+            int limit = maxReaders[slot];
+            names[slot] = null;
+            consumed = sequence + 1;
+            
+            reportDrops();
+            emit(sequence, type, name, writer, timestamp, readers, writersInside, waiting, limit);
+        }
+    }
+    
+    private void emit(long sequence, byte type, String name, boolean writer, long timestamp, int readers,
+                      int writersInside, int waiting, int limit) {
+        replay(type, name, writer);
+        resync(readers, writersInside, waiting);
+        if (sequence % sampleEvery == 0) {
+            String event = describe(type, name, writer, limit);
+            out.print(level == Level.STATUS
+                    ? formatStatus(event, readers, writersInside, waiting)
+                    : formatLine(event, timestamp, readers, writersInside, waiting));
+        }
+    }
+    
+    private boolean idle(int slot, long sequence) {
+        sleeping = true;
+        try {
+            long deadline = System.nanoTime() + IDLE_NANOS;
+            long remaining = IDLE_NANOS;
+            while (published.get(slot) != sequence + 1) {
+                if (closed && claimed.get() == sequence) {
+                    return true;
+                }
+                if (remaining <= 0) {
+                    return claimed.get() == sequence;
+                }
+                out.flush();
+                LockSupport.parkNanos(this, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+            return false;
+        } finally {
+            sleeping = false;
+        }
+    }
+    
+    private void reportDrops() {
+        long lost = dropped.get();
+        if (lost != reportedDrops) {
+            out.printf("(pominięto %d zdarzeń - pełny bufor dziennika, stan odtworzony z liczników)%n",
+                    lost - reportedDrops);
+            reportedDrops = lost;
+            readersInside.clear();
+            writerInside = null;
+            waitingNames.clear();
+            waitingRoles.clear();
+        }
+    }
+    
+    public void close() {
+        closed = true;
+        Thread thread = consumer;
+        if (thread == null) {
+            out.flush();
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    public long getPublished() {
+        return claimed.get();
+    }
+    
+    public long getConsumed() {
+        return consumed;
+    }
+    
+    public long getDropped() {
+        return dropped.get();
+    }
+    
+    public boolean isClosed() {
+        return closed;
+    }
+    
+    public Level getLevel() {
+        return level;
+    }
+    
+    public int getSampleEvery() {
+        return sampleEvery;
+    }
+    
+    private void replay(byte type, String name, boolean writer) {
+        switch (type) {
+            case REQUEST:
+                waitingNames.add(name);
+                waitingRoles.add(writer);
+                break;
+            case ENTER:
+                removeWaiting(name, writer);
+                if (writer) {
+                    writerInside = name;
+                } else {
+                    readersInside.add(name);
+                }
+                break;
+            case EXIT:
+                if (writer) {
+                    writerInside = null;
+                } else {
+                    readersInside.remove(name);
+                }
+                break;
+            case ABANDON:
+                removeWaiting(name, writer);
+                break;
+            case UPGRADE:
+                readersInside.remove(name);
+                writerInside = name;
+                break;
+            case DOWNGRADE:
+                writerInside = null;
+                readersInside.add(name);
+                break;
+            default:
+                break;
+        }
+    }
+    
+    private void resync(int readers, int writersInside, int waiting) {
+        if (readers == 0) {
+            readersInside.clear();
+        }
+        if (writersInside == 0) {
+            writerInside = null;
+        }
+        if (waiting == 0) {
+            waitingNames.clear();
+            waitingRoles.clear();
+        }
+    }
+    
+    private void removeWaiting(String name, boolean writer) {
+        for (int i = 0; i < waitingNames.size(); i++) {
+            if (waitingRoles.get(i) == writer && waitingNames.get(i).equals(name)) {
+                waitingNames.remove(i);
+                waitingRoles.remove(i);
+                return;
+            }
+        }
+    }
+    
+    private static String describe(byte type, String name, boolean writer, int limit) {
+        String who = name + (writer ? " (pisarz)" : " (czytelnik)");
+        switch (type) {
+            case REQUEST:
+                return who + " chce wejść do czytelni";
+            case ENTER:
+                return who + " WCHODZI do czytelni";
+            case EXIT:
+                return who + " WYCHODZI z czytelni";
+            case ABANDON:
+                return who + " rezygnuje z czekania";
+            case UPGRADE:
+                return name + " (aktualizujący) PRZECHODZI do zapisu";
+            case DOWNGRADE:
+                return name + " (pisarz) PRZECHODZI do czytania";
+            default:
+                return "Zmiana pojemności czytelni na " + limit;
+        }
+    }
+    
+    private String formatLine(String event, long timestamp, int readers, int writersInside, int waiting) {
+        return String.format("[%10.3f ms] %s | czytelnicy=%d pisarze=%d kolejka=%d%n",
+                (timestamp - startNanos) / 1_000_000.0, event, readers, writersInside, waiting);
+    }
+    
+    private String formatStatus(String event, int readers, int writersInside, int waiting) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n========================================\n");
+        sb.append("ZDARZENIE: ").append(event).append("\n");
+        sb.append("----------------------------------------\n");
+        
+        sb.append("W CZYTELNI:\n");
+        sb.append("  Pisarze (").append(writersInside).append("): ");
+        sb.append(writerInside != null ? "[" + writerInside + "]" : "[]").append("\n");
+        sb.append("  Czytelnicy (").append(readers).append("): ");
+        sb.append(readersInside).append("\n");
+        
+        sb.append("W KOLEJCE (").append(waiting).append("):\n");
+        List<String> waitingReaderNames = new ArrayList<>();
+        List<String> waitingWriterNames = new ArrayList<>();
+        List<String> queueOrder = new ArrayList<>();
+        for (int i = 0; i < waitingNames.size(); i++) {
+            boolean writer = waitingRoles.get(i);
+            (writer ? waitingWriterNames : waitingReaderNames).add(waitingNames.get(i));
+            queueOrder.add(waitingNames.get(i) + (writer ? "(P)" : "(C)"));
+        }
+        
+        sb.append("  Pisarze (").append(waitingWriterNames.size()).append("): ");
+        sb.append(waitingWriterNames).append("\n");
+        sb.append("  Czytelnicy (").append(waitingReaderNames.size()).append("): ");
+        sb.append(waitingReaderNames).append("\n");
+        sb.append("  Kolejność: ").append(queueOrder).append("\n");
+        
+        sb.append("========================================\n");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,17 @@
+public class FifoPolicy implements AdmissionPolicy {
+    
+    @Override
+    public boolean canReaderEnter(AdmissionView view, long ticket) {
+        return ticket < view.getOldestWriterTicket();
+    }
+    
+    @Override
+    public boolean canWriterEnter(AdmissionView view, long ticket) {
+        return ticket < view.getOldestReaderTicket();
+    }
+    
+    @Override
+    public String getName() {
+        return "fifo";
+    }
+}
@@ -0,0 +1,136 @@
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class IntentionLock {
+    
+    private static class Waiter extends WaitingList.Node<Waiter> {
+        final LockMode mode;
+        final Condition condition;
+        boolean granted = false;
+        
+        Waiter(LockMode mode, Condition condition) {
+            this.mode = mode;
+            this.condition = condition;
+        }
+    }
+    
+    private final String name;
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final int[] holders = new int[LockMode.values().length];
+    private final WaitingList<Waiter> waiting = new WaitingList<>();
+    
+    public IntentionLock(String name) {
+        this.name = name;
+    }
+    
+    public boolean acquire(LockMode mode) {
+        lock.lock();
+        try {
+            if (waiting.size() == 0 && isCompatible(mode)) {
+                holders[mode.ordinal()]++;
+                return true;
+            }
+            
+            Waiter waiter = new Waiter(mode, lock.newCondition());
+            waiting.addLast(waiter);
+            while (!waiter.granted) {
+                try {
+                    waiter.condition.await();
+                } catch (InterruptedException e) {
+                    if (waiter.granted) {
+                        holders[mode.ordinal()]--;
+                    } else {
+                        waiting.remove(waiter);
+                    }
+                    admitWaiting();
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public boolean tryAcquire(LockMode mode) {
+        lock.lock();
+        try {
+            if (waiting.size() != 0 || !isCompatible(mode)) {
+                return false;
+            }
+            holders[mode.ordinal()]++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public void release(LockMode mode) {
+        lock.lock();
+        try {
+            if (holders[mode.ordinal()] == 0) {
+                throw new IllegalStateException("Blokada " + name + " nie jest trzymana w trybie " + mode);
+            }
+            holders[mode.ordinal()]--;
+            admitWaiting();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void admitWaiting() {
+        Waiter head;
+        while ((head = waiting.peekFirst()) != null && isCompatible(head.mode)) {
+            waiting.remove(head);
+            holders[head.mode.ordinal()]++;
+            head.granted = true;
+            head.condition.signal();
+        }
+    }
+    
+    private boolean isCompatible(LockMode mode) {
+        for (LockMode held : LockMode.values()) {
+            if (holders[held.ordinal()] > 0 && !mode.isCompatibleWith(held)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public int getHolders(LockMode mode) {
+        lock.lock();
+        try {
+            return holders[mode.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int getQueueSize() {
+        lock.lock();
+        try {
+            return waiting.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public boolean isFree() {
+        lock.lock();
+        try {
+            for (int count : holders) {
+                if (count > 0) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public String getName() {
+        return name;
+    }
+}
@@ -1,271 +1,996 @@
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.Comparator;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
-public class Library {
+public class Library implements AutoCloseable {
     
-    private static final int MAX_READERS = 5;
+    private static final int DEFAULT_MAX_READERS = 5;
+    
+    private static final long READER_UNIT = 1L;
+    private static final long READER_MASK = 0xFFFF_FFFFL;
+    private static final long WRITER = 1L << 32;
+    private static final long QUEUED = 1L << 33;
+    private static final long BIAS_REVOKED = 1L << 34;
+    private static final long UPGRADING = 1L << 35;
+    private static final long UPDATER = 1L << 36;
+    private static final long EPOCH_UNIT = 1L << 40;
+    private static final long EPOCH_MASK = -EPOCH_UNIT;
+    private static final long STAMP_MARK = 1L;
+    private static final long SLOW_PATH = WRITER | QUEUED | BIAS_REVOKED | UPGRADING;
+    
+    private static final int NO_STRIPE = -1;
+    private static final int NOT_ADMITTED = -2;
+    private static final long UNKNOWN_DURATION = 0L;
+    
+    private static final AtomicLong ORDER = new AtomicLong();
+    
+    private final long order = ORDER.getAndIncrement();
+    private final AtomicLong state = new AtomicLong();
+    private final EventLog events;
+    private final boolean ownsEvents;
+    private final AdmissionPolicy policy;
+    private final AdmissionView view = new QueueView();
+    private final ReaderStripes stripes;
+    private final LongSupplier clock;
+    private final Executor handoff;
+    private volatile int maxReaders;
+    private volatile Runnable releaseListener;
+    private volatile boolean tracking;
+    
+    private final LongAdder completedReads = new LongAdder();
+    private final LongAdder timedReads = new LongAdder();
+    private final LongAdder readNanos = new LongAdder();
+    private final LongAdder optimisticFallbacks = new LongAdder();
+    private final LongAdder cancelledWaits = new LongAdder();
+    private final AtomicReference<WriteCombiner> combiner = new AtomicReference<>();
     
     private final ReentrantLock lock = new ReentrantLock(true);
-    private final Condition canEnter = lock.newCondition();
+    private final Condition upgradeReady = lock.newCondition();
     
-    private final Queue<WaitingEntity> waitingQueue = new LinkedList<>();
+    private final WaitingList<WaitingEntity> waitingReaders = new WaitingList<>();
+    private final WaitingList<WaitingEntity> waitingWriters = new WaitingList<>();
+    private long nextTicket = 0;
     
-    private final List<String> readersInLibrary = new ArrayList<>();
-    private String writerInLibrary = null;
+    private final Set<Permit> readersInLibrary = ConcurrentHashMap.newKeySet();
+    private volatile Permit writerInLibrary = null;
     
-    private int activeReaders = 0;
-    private int activeWriters = 0;
+    public Library() {
+        this(true);
+    }
     
-
-    private static class WaitingEntity {
+    public Library(boolean printEvents) {
+        this(printEvents, false);
+    }
+    
+    public Library(boolean printEvents, boolean readBiased) {
+        this(printEvents, readBiased, DEFAULT_MAX_READERS);
+    }
+    
+    public Library(boolean printEvents, boolean readBiased, int maxReaders) {
+        this(printEvents ? EventLog.console() : EventLog.silent(), readBiased, maxReaders, new FifoPolicy(), printEvents,
+                System::nanoTime, ForkJoinPool.commonPool());
+    }
+    
+    public Library(EventLog events, boolean readBiased, int maxReaders) {
+        this(events, readBiased, maxReaders, new FifoPolicy());
+    }
+    
+    public Library(EventLog events, boolean readBiased, int maxReaders, AdmissionPolicy policy) {
+        this(events, readBiased, maxReaders, policy, false, System::nanoTime, ForkJoinPool.commonPool());
+    }
+    
+    Library(EventLog events, int maxReaders, AdmissionPolicy policy, LongSupplier clock, Executor handoff) {
+        this(events, false, maxReaders, policy, false, clock, handoff);
+    }
+    
+    private Library(EventLog events, boolean readBiased, int maxReaders, AdmissionPolicy policy, boolean ownsEvents,
+                    LongSupplier clock, Executor handoff) {
+        if (maxReaders < 1) {
+            throw new IllegalArgumentException("Pojemność czytelni musi być dodatnia: " + maxReaders);
+        }
+        this.events = events;
+        this.ownsEvents = ownsEvents;
+        this.policy = policy;
+        this.maxReaders = maxReaders;
+        this.clock = clock;
+        this.handoff = handoff;
+        this.stripes = readBiased ? new ReaderStripes(ReaderStripes.defaultStripes(), maxReaders) : null;
+        this.tracking = !events.isSilent() || policy.usesReadTimes();
+    }
+    
+    private static class WaitingEntity extends WaitingList.Node<WaitingEntity> {
         final String name;
         final boolean isWriter;
         final Condition condition;
+        final CompletableFuture<Permit> future;
+        final long ticket;
         boolean canProceed = false;
+        boolean updater = false;
+        long expectedNanos = UNKNOWN_DURATION;
+        Permit permit;
         
-        WaitingEntity(String name, boolean isWriter, Condition condition) {
+        WaitingEntity(String name, boolean isWriter, Condition condition, CompletableFuture<Permit> future, long ticket) {
             this.name = name;
             this.isWriter = isWriter;
             this.condition = condition;
+            this.future = future;
+            this.ticket = ticket;
         }
     }
     
-    public void startReading(String readerName) {
+    public Permit startReading(String readerName) {
+        return start(readerName, false, UNKNOWN_DURATION);
+    }
+    
+    public Permit startReadingFor(String readerName, long expectedTime, TimeUnit unit) {
+        return start(readerName, false, unit.toNanos(expectedTime));
+    }
+    
+    public Permit startWriting(String writerName) {
+        return start(writerName, true, UNKNOWN_DURATION);
+    }
+    
+    private Permit start(String name, boolean isWriter, long expectedNanos) {
+        Permit permit = isWriter ? tryEnterWriting(name) : tryEnterReading(name, expectedNanos);
+        if (permit != null) {
+            return permit;
+        }
+        
         lock.lock();
         try {
-            Condition myCondition = lock.newCondition();
-            WaitingEntity myEntry = new WaitingEntity(readerName, false, myCondition);
-            waitingQueue.add(myEntry);
+            WaitingEntity myEntry = enqueue(name, isWriter, null);
+            myEntry.expectedNanos = expectedNanos;
             
-            printStatus(readerName + " (czytelnik) chce wejść do czytelni");
+            admitNext();
+            return awaitAdmission(myEntry);
             
-            while (!canReaderEnter(myEntry)) {
-                try {
-                    myCondition.await();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    waitingQueue.remove(myEntry);
-                    return;
-                }
-            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public Permit startReadingInterruptibly(String readerName) throws InterruptedException {
+        return startInterruptibly(readerName, false);
+    }
+    
+    public Permit startWritingInterruptibly(String writerName) throws InterruptedException {
+        return startInterruptibly(writerName, true);
+    }
+    
+    private Permit startInterruptibly(String name, boolean isWriter) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        Permit permit = isWriter ? tryEnterWriting(name) : tryEnterReading(name, UNKNOWN_DURATION);
+        if (permit != null) {
+            return permit;
+        }
+        
+        lock.lockInterruptibly();
+        try {
+            WaitingEntity myEntry = enqueue(name, isWriter, null);
             
-            waitingQueue.remove(myEntry);
-            activeReaders++;
-            readersInLibrary.add(readerName);
+            admitNext();
+            return awaitAdmissionInterruptibly(myEntry);
             
-            printStatus(readerName + " (czytelnik) WCHODZI do czytelni");
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public Permit startUpdating(String updaterName) {
+        Permit permit = tryEnterUpdating(updaterName);
+        if (permit != null) {
+            return permit;
+        }
+        
+        lock.lock();
+        try {
+            WaitingEntity myEntry = enqueue(updaterName, false, null);
+            myEntry.updater = true;
             
-            signalNext();
+            admitNext();
+            return awaitAdmission(myEntry);
             
         } finally {
             lock.unlock();
         }
     }
     
-    public void stopReading(String readerName) {
+    public Permit upgrade(Permit permit) {
+        if (!permit.isUpdater()) {
+            throw new IllegalStateException("Przepustka " + permit.getName() + " nie jest w trybie aktualizacji");
+        }
+        claim(permit);
+        
         lock.lock();
         try {
-            activeReaders--;
-            readersInLibrary.remove(readerName);
+            state.getAndAccumulate(UPGRADING, (current, bit) -> current | bit);
+            while (readers(state.get()) + stripeReaders() > 1) {
+                upgradeReady.awaitUninterruptibly();
+            }
             
-            printStatus(readerName + " (czytelnik) WYCHODZI z czytelni");
+            publish(EventLog.UPGRADE, permit.getName(), true);
+            unregisterReader(permit);
             
-            signalNext();
+            Permit writer = new Permit(this, permit.getName(), true, NO_STRIPE, UNKNOWN_DURATION);
+            writerInLibrary = writer;
+            state.getAndAdd(WRITER + EPOCH_UNIT - READER_UNIT - UPDATER - UPGRADING);
+            return writer;
             
         } finally {
             lock.unlock();
         }
     }
     
-    public void startWriting(String writerName) {
+    public Permit downgrade(Permit permit) {
+        if (!permit.isWriter()) {
+            throw new IllegalStateException("Przepustka " + permit.getName() + " nie jest przepustką pisarza");
+        }
+        claim(permit);
+        
+        lock.lock();
+        try {
+            publish(EventLog.DOWNGRADE, permit.getName(), false);
+            Permit reader = registerReader(permit.getName(), NO_STRIPE, UNKNOWN_DURATION, false);
+            writerInLibrary = null;
+            state.getAndAdd(READER_UNIT - WRITER);
+            
+            policy.onWriterExit(view);
+            admitNext();
+            return reader;
+            
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public long tryOptimisticRead() {
+        long current = state.get();
+        return (current & WRITER) != 0 ? 0L : (current & EPOCH_MASK) | STAMP_MARK;
+    }
+    
+    public boolean validate(long stamp) {
+        VarHandle.acquireFence();
+        long current = state.get();
+        return stamp != 0L && (current & WRITER) == 0 && (current & EPOCH_MASK) == (stamp & EPOCH_MASK);
+    }
+    
+    public <T> T readOptimistically(String readerName, Supplier<T> read) {
+        long stamp = tryOptimisticRead();
+        if (stamp != 0L) {
+            T result = read.get();
+            if (validate(stamp)) {
+                return result;
+            }
+        }
+        
+        optimisticFallbacks.increment();
+        Permit permit = startReading(readerName);
+        if (permit == null) {
+            return null;
+        }
+        try {
+            return read.get();
+        } finally {
+            permit.release();
+        }
+    }
+    
+    public void release(Permit permit) {
+        claim(permit);
+        
+        if (permit.isWriter()) {
+            exitWriting(permit);
+        } else {
+            exitReading(permit);
+        }
+        
+        Runnable listener = releaseListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+    
+    void setReleaseListener(Runnable listener) {
+        releaseListener = listener;
+    }
+    
+    private void claim(Permit permit) {
+        if (permit.getLibrary() != this) {
+            throw new IllegalArgumentException("Przepustka " + permit.getName() + " należy do innej czytelni");
+        }
+        if (!permit.markReleased()) {
+            throw new IllegalStateException("Przepustka " + permit.getName() + " została już zwolniona");
+        }
+    }
+    
+    @Deprecated
+    public void stopReading(String readerName) {
+        if (!tracking) {
+            throw new IllegalStateException("Czytelnia nie śledzi czytelników po nazwie - użyj Permit.release()");
+        }
+        for (Permit permit : readersInLibrary) {
+            if (permit.getName().equals(readerName) && permit.markReleased()) {
+                exitReading(permit);
+                return;
+            }
+        }
+    }
+    
+    @Deprecated
+    public void stopWriting(String writerName) {
+        Permit permit = writerInLibrary;
+        if (permit != null && permit.getName().equals(writerName) && permit.markReleased()) {
+            exitWriting(permit);
+        }
+    }
+    
+    private void exitReading(Permit permit) {
+        publish(EventLog.EXIT, permit.getName(), false);
+        unregisterReader(permit);
+        
+        long previous;
+        if (permit.isUpdater()) {
+            previous = state.getAndAdd(-READER_UNIT - UPDATER);
+        } else if (permit.getStripe() == NO_STRIPE) {
+            previous = state.getAndAdd(-READER_UNIT);
+        } else {
+            stripes.release(permit.getStripe());
+            previous = state.get();
+        }
+        
+        if ((previous & (QUEUED | BIAS_REVOKED | UPGRADING)) != 0) {
+            lock.lock();
+            try {
+                admitNext();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+    
+    private void exitWriting(Permit permit) {
+        publish(EventLog.EXIT, permit.getName(), true);
+        writerInLibrary = null;
+        long previous = state.getAndAdd(-WRITER);
+        
+        if ((previous & (QUEUED | BIAS_REVOKED)) != 0) {
+            lock.lock();
+            try {
+                policy.onWriterExit(view);
+                admitNext();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+    
+    public Permit tryStartReading(String readerName) {
+        return tryStartNow(readerName, false);
+    }
+    
+    public Permit tryStartReading(String readerName, long timeout, TimeUnit unit) throws InterruptedException {
+        return tryStart(readerName, false, unit.toNanos(timeout));
+    }
+    
+    public Permit tryStartWriting(String writerName) {
+        return tryStartNow(writerName, true);
+    }
+    
+    public Permit tryStartWriting(String writerName, long timeout, TimeUnit unit) throws InterruptedException {
+        return tryStart(writerName, true, unit.toNanos(timeout));
+    }
+    
+    private Permit tryStartNow(String name, boolean isWriter) {
+        Permit permit = isWriter ? tryEnterWriting(name) : tryEnterReading(name, UNKNOWN_DURATION);
+        if (permit != null) {
+            return permit;
+        }
+        
         lock.lock();
         try {
-            Condition myCondition = lock.newCondition();
-            WaitingEntity myEntry = new WaitingEntity(writerName, true, myCondition);
-            waitingQueue.add(myEntry);
+            long ticket = nextTicket;
+            WaitingList<WaitingEntity> ahead = isWriter ? waitingWriters : waitingReaders;
+            boolean allowed = isWriter ? policy.canWriterEnter(view, ticket) : policy.canReaderEnter(view, ticket);
+            if (ahead.size() != 0 || !allowed || !claimNow(isWriter)) {
+                return null;
+            }
+            
+            nextTicket++;
+            policy.onAdmit(view, isWriter, ticket);
+            if (isWriter) {
+                permit = new Permit(this, name, true, NO_STRIPE, UNKNOWN_DURATION);
+                writerInLibrary = permit;
+            } else {
+                permit = registerReader(name, NO_STRIPE, UNKNOWN_DURATION, false);
+            }
+            publish(EventLog.ENTER, name, isWriter);
+            return permit;
             
-            printStatus(writerName + " (pisarz) chce wejść do czytelni");
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private boolean claimNow(boolean isWriter) {
+        if (stripes != null) {
+            state.getAndAccumulate(BIAS_REVOKED, (current, bit) -> current | bit);
+        }
+        
+        long current = state.get();
+        while (isWriter
+                ? (current & (WRITER | READER_MASK)) == 0 && stripeReaders() == 0
+                : (current & (WRITER | UPGRADING)) == 0 && readers(current) + stripeReaders() < maxReaders) {
+            if (state.compareAndSet(current, current + (isWriter ? WRITER + EPOCH_UNIT : READER_UNIT))) {
+                return true;
+            }
+            current = state.get();
+        }
+        clearQueueFlags();
+        return false;
+    }
+    
+    private Permit tryStart(String name, boolean isWriter, long timeoutNanos) throws InterruptedException {
+        Permit permit = isWriter ? tryEnterWriting(name) : tryEnterReading(name, UNKNOWN_DURATION);
+        if (permit != null) {
+            return permit;
+        }
+        
+        lock.lock();
+        try {
+            WaitingEntity entry = enqueue(name, isWriter, null);
+            admitNext();
             
-            while (!canWriterEnter(myEntry)) {
+            long remaining = timeoutNanos;
+            while (!entry.canProceed && remaining > 0) {
                 try {
-                    myCondition.await();
+                    remaining = entry.condition.awaitNanos(remaining);
                 } catch (InterruptedException e) {
+                    if (abandon(entry)) {
+                        cancelledWaits.increment();
+                        throw e;
+                    }
                     Thread.currentThread().interrupt();
-                    waitingQueue.remove(myEntry);
-                    return;
                 }
             }
             
-            waitingQueue.remove(myEntry);
-            activeWriters = 1;
-            writerInLibrary = writerName;
-            
-            printStatus(writerName + " (pisarz) WCHODZI do czytelni");
+            if (!entry.canProceed) {
+                abandon(entry);
+                return null;
+            }
+            return entry.permit;
             
         } finally {
             lock.unlock();
         }
     }
     
-    public void stopWriting(String writerName) {
+    public <T> T submitWrite(String writerName, Supplier<T> operation) throws InterruptedException {
+        return combiner().submit(writerName, operation);
+    }
+    
+    private WriteCombiner combiner() {
+        WriteCombiner current = combiner.get();
+        if (current == null) {
+            combiner.compareAndSet(null, new WriteCombiner(this));
+            current = combiner.get();
+        }
+        return current;
+    }
+    
+    public CompletableFuture<Permit> acquireReadAsync(String readerName) {
+        return acquireAsync(readerName, false);
+    }
+    
+    public CompletableFuture<Permit> acquireWriteAsync(String writerName) {
+        return acquireAsync(writerName, true);
+    }
+    
+    private CompletableFuture<Permit> acquireAsync(String name, boolean isWriter) {
+        return acquireAsync(name, isWriter, UNKNOWN_DURATION);
+    }
+    
+    CompletableFuture<Permit> acquireAsync(String name, boolean isWriter, long expectedNanos) {
+        Permit permit = isWriter ? tryEnterWriting(name) : tryEnterReading(name, expectedNanos);
+        if (permit != null) {
+            return CompletableFuture.completedFuture(permit);
+        }
+        
+        CompletableFuture<Permit> future = new CompletableFuture<>();
+        WaitingEntity entry;
         lock.lock();
         try {
-            activeWriters = 0;
-            writerInLibrary = null;
-            
-            printStatus(writerName + " (pisarz) WYCHODZI z czytelni");
-            
-            signalNext();
-            
+            entry = enqueue(name, isWriter, future);
+            entry.expectedNanos = expectedNanos;
+            admitNext();
+        } finally {
+            lock.unlock();
+        }
+        
+        future.whenComplete((admitted, failure) -> {
+            if (future.isCancelled() && abandon(entry)) {
+                cancelledWaits.increment();
+            }
+        });
+        return future;
+    }
+    
+    private boolean abandon(WaitingEntity entry) {
+        lock.lock();
+        try {
+            if (entry.canProceed) {
+                return false;
+            }
+            unlink(entry);
+            publish(EventLog.ABANDON, entry.name, entry.isWriter);
+            admitNext();
+            return true;
         } finally {
             lock.unlock();
         }
     }
     
+    private void handOver(WaitingEntity entry) {
+        if (!entry.future.complete(entry.permit)) {
+            entry.permit.release();
+        }
+    }
+    
+    private Permit tryEnterReading(String readerName, long expectedNanos) {
+        int stripe = tryEnterReadingFast();
+        if (stripe == NOT_ADMITTED) {
+            return null;
+        }
+        
+        Permit permit = registerReader(readerName, stripe, expectedNanos, false);
+        publish(EventLog.ENTER, readerName, false);
+        return permit;
+    }
+    
+    private Permit registerReader(String readerName, int stripe, long expectedNanos, boolean updater) {
+        Permit permit = new Permit(this, readerName, false, stripe, expectedNanos, updater, tracking);
+        if (permit.isTracked()) {
+            readersInLibrary.add(permit);
+        }
+        return permit;
+    }
+    
+    private void unregisterReader(Permit permit) {
+        completedReads.increment();
+        if (permit.isTracked()) {
+            readersInLibrary.remove(permit);
+            readNanos.add(clock.getAsLong() - permit.getEnteredAt());
+            timedReads.increment();
+        }
+    }
+    
+    private Permit tryEnterUpdating(String updaterName) {
+        if (stripes != null) {
+            return null;
+        }
+        
+        long current = state.get();
+        while ((current & (SLOW_PATH | UPDATER)) == 0 && readers(current) < maxReaders) {
+            if (state.compareAndSet(current, current + READER_UNIT + UPDATER)) {
+                Permit permit = registerReader(updaterName, NO_STRIPE, UNKNOWN_DURATION, true);
+                publish(EventLog.ENTER, updaterName, false);
+                return permit;
+            }
+            current = state.get();
+        }
+        return null;
+    }
+    
+    private Permit tryEnterWriting(String writerName) {
+        long current = state.get();
+        if (stripes != null || (current & ~EPOCH_MASK) != 0
+                || !state.compareAndSet(current, current + WRITER + EPOCH_UNIT)) {
+            return null;
+        }
+        
+        Permit permit = new Permit(this, writerName, true, NO_STRIPE, UNKNOWN_DURATION);
+        writerInLibrary = permit;
+        publish(EventLog.ENTER, writerName, true);
+        return permit;
+    }
+    
+    private int tryEnterReadingFast() {
+        if (stripes != null) {
+            return tryEnterReadingBiased();
+        }
+        
+        long current = state.get();
+        while ((current & SLOW_PATH) == 0 && readers(current) < maxReaders) {
+            if (state.compareAndSet(current, current + READER_UNIT)) {
+                return NO_STRIPE;
+            }
+            current = state.get();
+        }
+        return NOT_ADMITTED;
+    }
+    
+    private int tryEnterReadingBiased() {
+        if ((state.get() & SLOW_PATH) != 0) {
+            return NOT_ADMITTED;
+        }
+        
+        int stripe = stripes.tryAcquire(stripes.homeStripe());
+        if (stripe < 0) {
+            return NOT_ADMITTED;
+        }
+        
+        if ((state.get() & SLOW_PATH) != 0) {
+            stripes.release(stripe);
+            lock.lock();
+            try {
+                admitNext();
+            } finally {
+                lock.unlock();
+            }
+            return NOT_ADMITTED;
+        }
+        return stripe;
+    }
+    
+    private int stripeReaders() {
+        return stripes == null ? 0 : stripes.sum();
+    }
+    
+    private static int readers(long state) {
+        return (int) (state & READER_MASK);
+    }
+    
+    private WaitingEntity enqueue(String name, boolean isWriter, CompletableFuture<Permit> future) {
+        Condition condition = future == null ? lock.newCondition() : null;
+        WaitingEntity entry = new WaitingEntity(name, isWriter, condition, future, nextTicket++);
+        queueOf(entry).addLast(entry);
+        long bits = stripes == null ? QUEUED : QUEUED | BIAS_REVOKED;
+        state.getAndAccumulate(bits, (current, bit) -> current | bit);
+        
+        publish(EventLog.REQUEST, name, isWriter);
+        return entry;
+    }
+    
+    private void unlink(WaitingEntity entry) {
+        queueOf(entry).remove(entry);
+        clearQueueFlags();
+    }
+    
+    private void clearQueueFlags() {
+        if (waitingReaders.size() != 0 || waitingWriters.size() != 0) {
+            return;
+        }
+        
+        long current = state.get();
+        while (true) {
+            long updated = current & ~QUEUED;
+            if ((updated & (WRITER | READER_MASK)) == 0) {
+                updated &= ~BIAS_REVOKED;
+            }
+            if (updated == current || state.compareAndSet(current, updated)) {
+                return;
+            }
+            current = state.get();
+        }
+    }
+    
     private boolean canReaderEnter(WaitingEntity reader) {
-        if (activeWriters > 0) {
+        long current = state.get();
+        if ((current & (WRITER | UPGRADING)) != 0) {
             return false;
         }
         
-        if (activeReaders >= MAX_READERS) {
+        if (reader.updater && (current & UPDATER) != 0) {
             return false;
         }
         
-        for (WaitingEntity entity : waitingQueue) {
-            if (entity == reader) {
-                return true;
-            }
-            if (entity.isWriter) {
-                return false;
-            }
+        if (readers(current) + stripeReaders() >= maxReaders) {
+            return false;
         }
         
-        return true;
+        return policy.canReaderEnter(view, reader.ticket);
     }
     
     private boolean canWriterEnter(WaitingEntity writer) {
-        if (activeWriters > 0 || activeReaders > 0) {
+        if ((state.get() & (WRITER | READER_MASK)) != 0 || stripeReaders() != 0) {
             return false;
         }
         
-        WaitingEntity first = waitingQueue.peek();
-        return first == writer;
+        return policy.canWriterEnter(view, writer.ticket);
     }
     
-    private void signalNext() {
-        for (WaitingEntity entity : waitingQueue) {
-            entity.condition.signal();
-        }
+    private static long ticketOf(WaitingEntity oldest) {
+        return oldest == null ? AdmissionPolicy.NONE_WAITING : oldest.ticket;
     }
     
-    private void printStatus(String event) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("\n========================================\n");
-        sb.append("ZDARZENIE: ").append(event).append("\n");
-        sb.append("----------------------------------------\n");
+    private class QueueView implements AdmissionView {
         
-        sb.append("W CZYTELNI:\n");
-        if (writerInLibrary != null) {
-            sb.append("  Pisarze (1): [").append(writerInLibrary).append("]\n");
-            sb.append("  Czytelnicy (0): []\n");
-        } else {
-            sb.append("  Pisarze (0): []\n");
-            sb.append("  Czytelnicy (").append(activeReaders).append("): ");
-            sb.append(readersInLibrary).append("\n");
+        @Override
+        public int getActiveReaders() {
+            return Library.this.getActiveReaders();
         }
         
-        sb.append("W KOLEJCE:\n");
-        int waitingReaders = 0;
-        int waitingWriters = 0;
-        List<String> waitingReaderNames = new ArrayList<>();
-        List<String> waitingWriterNames = new ArrayList<>();
+        @Override
+        public boolean isWriterActive() {
+            return (state.get() & WRITER) != 0;
+        }
         
-        for (WaitingEntity entity : waitingQueue) {
-            if (entity.isWriter) {
-                waitingWriters++;
-                waitingWriterNames.add(entity.name);
-            } else {
-                waitingReaders++;
-                waitingReaderNames.add(entity.name);
-            }
+        @Override
+        public int getMaxReaders() {
+            return maxReaders;
         }
         
-        sb.append("  Pisarze (").append(waitingWriters).append("): ");
-        sb.append(waitingWriterNames).append("\n");
-        sb.append("  Czytelnicy (").append(waitingReaders).append("): ");
-        sb.append(waitingReaderNames).append("\n");
+        @Override
+        public long getOldestReaderTicket() {
+            return ticketOf(waitingReaders.peekFirst());
+        }
         
-        sb.append("  Kolejność: ");
-        List<String> queueOrder = new ArrayList<>();
-        for (WaitingEntity entity : waitingQueue) {
-            queueOrder.add(entity.name + (entity.isWriter ? "(P)" : "(C)"));
+        @Override
+        public long getOldestWriterTicket() {
+            return ticketOf(waitingWriters.peekFirst());
         }
-        sb.append(queueOrder).append("\n");
         
-        sb.append("========================================\n");
+        @Override
+        public long getNextTicket() {
+            return nextTicket;
+        }
+        
+        @Override
+        public long getNanoTime() {
+            return clock.getAsLong();
+        }
         
-        System.out.print(sb);
+        @Override
+        public long getOldestReaderExpectedNanos() {
+            WaitingEntity oldest = waitingReaders.peekFirst();
+            return oldest == null ? UNKNOWN_DURATION : expectedOrMean(oldest.expectedNanos);
+        }
+        
+        @Override
+        public long getReadGroupDrainNanos() {
+            long drain = Long.MIN_VALUE;
+            for (Permit reader : readersInLibrary) {
+                drain = Math.max(drain, reader.getEnteredAt() + expectedOrMean(reader.getExpectedNanos()));
+            }
+            return drain;
+        }
     }
     
-    public int getActiveReaders() {
-        lock.lock();
-        try {
-            return activeReaders;
-        } finally {
-            lock.unlock();
+    private long expectedOrMean(long expectedNanos) {
+        if (expectedNanos != UNKNOWN_DURATION) {
+            return expectedNanos;
         }
+        long timed = timedReads.sum();
+        return timed == 0 ? UNKNOWN_DURATION : readNanos.sum() / timed;
     }
     
-    public int getActiveWriters() {
-        lock.lock();
+    private WaitingList<WaitingEntity> queueOf(WaitingEntity entity) {
+        return entity.isWriter ? waitingWriters : waitingReaders;
+    }
+    
+    private Permit awaitAdmission(WaitingEntity entry) {
         try {
-            return activeWriters;
-        } finally {
-            lock.unlock();
+            return awaitAdmissionInterruptibly(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+    
+    private Permit awaitAdmissionInterruptibly(WaitingEntity entry) throws InterruptedException {
+        while (!entry.canProceed) {
+            try {
+                entry.condition.await();
+            } catch (InterruptedException e) {
+                if (abandon(entry)) {
+                    cancelledWaits.increment();
+                    throw e;
+                }
+                Thread.currentThread().interrupt();
+            }
+        }
+        return entry.permit;
+    }
+    
+    private void admitNext() {
+        if ((state.get() & UPGRADING) != 0 && readers(state.get()) + stripeReaders() <= 1) {
+            upgradeReady.signal();
+        }
+        
+        while (true) {
+            WaitingEntity reader = waitingReaders.peekFirst();
+            WaitingEntity writer = waitingWriters.peekFirst();
+            WaitingEntity next;
+            if (reader != null && canReaderEnter(reader)) {
+                next = reader;
+            } else if (writer != null && canWriterEnter(writer)) {
+                next = writer;
+            } else {
+                break;
+            }
+            queueOf(next).remove(next);
+            admit(next);
+        }
+        clearQueueFlags();
+    }
+    
+    private void admit(WaitingEntity entity) {
+        entity.canProceed = true;
+        entity.permit = entity.isWriter
+                ? new Permit(this, entity.name, true, NO_STRIPE, entity.expectedNanos)
+                : registerReader(entity.name, NO_STRIPE, entity.expectedNanos, entity.updater);
+        policy.onAdmit(view, entity.isWriter, entity.ticket);
+        if (entity.isWriter) {
+            writerInLibrary = entity.permit;
+            state.getAndAdd(WRITER + EPOCH_UNIT);
+            publish(EventLog.ENTER, entity.name, true);
+        } else {
+            state.getAndAdd(entity.updater ? READER_UNIT + UPDATER : READER_UNIT);
+            publish(EventLog.ENTER, entity.name, false);
+        }
+        
+        if (entity.future != null) {
+            handoff.execute(() -> handOver(entity));
+        } else {
+            entity.condition.signal();
+        }
+    }
+    
+    private void publish(byte type, String name, boolean isWriter) {
+        if (events.isSilent()) {
+            return;
         }
+        events.publish(type, name, isWriter, getActiveReaders(), getActiveWriters(),
+                waitingReaders.size() + waitingWriters.size(), maxReaders);
+    }
+    
+    public int getActiveReaders() {
+        return readers(state.get()) + stripeReaders();
+    }
+    
+    public int getActiveWriters() {
+        return (state.get() & WRITER) != 0 ? 1 : 0;
     }
     
     public int getQueueSize() {
         lock.lock();
         try {
-            return waitingQueue.size();
+            return waitingReaders.size() + waitingWriters.size();
         } finally {
             lock.unlock();
         }
     }
     
+    public int getLoad() {
+        int load = getActiveReaders() + waitingReaders.size() + waitingWriters.size();
+        return (state.get() & WRITER) != 0 ? load + maxReaders : load;
+    }
+    
     public int getMaxReaders() {
-        return MAX_READERS;
+        return maxReaders;
     }
     
-    public boolean isEmpty() {
+    public void setMaxReaders(int newMaxReaders) {
+        if (newMaxReaders < 1) {
+            throw new IllegalArgumentException("Pojemność czytelni musi być dodatnia: " + newMaxReaders);
+        }
+        
         lock.lock();
         try {
-            return activeReaders == 0 && activeWriters == 0;
+            if (newMaxReaders == maxReaders) {
+                return;
+            }
+            
+            if (stripes != null) {
+                state.getAndAccumulate(BIAS_REVOKED, (current, bit) -> current | bit);
+                stripes.setCapacity(newMaxReaders);
+            }
+            maxReaders = newMaxReaders;
+            
+            publish(EventLog.CAPACITY, null, false);
+            
+            admitNext();
+            
         } finally {
             lock.unlock();
         }
     }
     
+    public long getCompletedReads() {
+        return completedReads.sum();
+    }
+    
+    public long getTotalReadNanos() {
+        return readNanos.sum();
+    }
+    
+    public long getTimedReads() {
+        return timedReads.sum();
+    }
+    
+    public long getCancelledWaits() {
+        return cancelledWaits.sum();
+    }
+    
+    public long getOptimisticFallbacks() {
+        return optimisticFallbacks.sum();
+    }
+    
+    public long getCombinedBatches() {
+        WriteCombiner current = combiner.get();
+        return current == null ? 0 : current.getBatches();
+    }
+    
+    public long getCombinedWrites() {
+        WriteCombiner current = combiner.get();
+        return current == null ? 0 : current.getWrites();
+    }
+    
+    public boolean isEmpty() {
+        return (state.get() & (WRITER | READER_MASK)) == 0 && stripeReaders() == 0;
+    }
+    
+    @Override
+    public void close() {
+        if (ownsEvents) {
+            events.close();
+        }
+    }
+    
+    public AdmissionPolicy getAdmissionPolicy() {
+        return policy;
+    }
+    
+    public EventLog getEventLog() {
+        return events;
+    }
+    
+    public boolean isReadBiased() {
+        return stripes != null;
+    }
+    
+    void enableReadTracking() {
+        tracking = true;
+    }
+    
+    long nanoTime() {
+        return clock.getAsLong();
+    }
+    
+    long getOrder() {
+        return order;
+    }
+    
     public List<String> getReadersInLibrary() {
-        lock.lock();
-        try {
-            return new ArrayList<>(readersInLibrary);
-        } finally {
-            lock.unlock();
+        if (!tracking) {
+            throw new IllegalStateException("Czytelnia nie śledzi czytelników po nazwie - włącz dziennik zdarzeń");
+        }
+        List<Permit> inside = new ArrayList<>(readersInLibrary);
+        inside.sort(Comparator.comparingLong(Permit::getEnteredAt));
+        List<String> names = new ArrayList<>(inside.size());
+        for (Permit permit : inside) {
+            names.add(permit.getName());
         }
+        return names;
     }
     
     public String getWriterInLibrary() {
-        lock.lock();
-        try {
-            return writerInLibrary;
-        } finally {
-            lock.unlock();
-        }
+        Permit permit = writerInLibrary;
+        return permit == null ? null : permit.getName();
     }
 }
@@ -0,0 +1,195 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class LibraryPool {
+    
+    private static class Waiter {
+        final String name;
+        final boolean writer;
+        final CompletableFuture<Permit> queued;
+        final CompletableFuture<Permit> result = new CompletableFuture<>();
+        
+        Waiter(String name, boolean writer, CompletableFuture<Permit> queued) {
+            this.name = name;
+            this.writer = writer;
+            this.queued = queued;
+        }
+    }
+    
+    private final Library[] rooms;
+    private final List<Queue<Waiter>> waiting;
+    private final AtomicInteger pendingRebalances = new AtomicInteger();
+    private final LongAdder migrations = new LongAdder();
+    
+    public LibraryPool(int roomCount, int maxReaders) {
+        this(EventLog.silent(), roomCount, maxReaders);
+    }
+    
+    public LibraryPool(EventLog events, int roomCount, int maxReaders) {
+        if (roomCount < 1) {
+            throw new IllegalArgumentException("Liczba czytelni musi być dodatnia: " + roomCount);
+        }
+        this.rooms = new Library[roomCount];
+        this.waiting = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            rooms[i] = new Library(events, false, maxReaders);
+            waiting.add(new ConcurrentLinkedQueue<>());
+        }
+        for (Library room : rooms) {
+            room.setReleaseListener(this::rebalance);
+        }
+    }
+    
+    public Permit startReading(String readerName) {
+        return acquire(readerName, false);
+    }
+    
+    public Permit startWriting(String writerName) {
+        return acquire(writerName, true);
+    }
+    
+    private Permit acquire(String name, boolean isWriter) {
+        int home = choose();
+        Library room = rooms[home];
+        CompletableFuture<Permit> queued = isWriter ? room.acquireWriteAsync(name) : room.acquireReadAsync(name);
+        if (queued.isDone()) {
+            return queued.join();
+        }
+        
+        Waiter waiter = new Waiter(name, isWriter, queued);
+        queued.whenComplete((permit, failure) -> {
+            if (permit != null && !waiter.result.complete(permit)) {
+                permit.release();
+            }
+        });
+        waiting.get(home).add(waiter);
+        rebalance();
+        
+        try {
+            return waiter.result.get();
+        } catch (InterruptedException e) {
+            if (!waiter.result.completeExceptionally(new CancellationException())) {
+                waiter.result.join().release();
+            }
+            queued.cancel(false);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+    
+    private void rebalance() {
+        if (pendingRebalances.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            for (int target = 0; target < rooms.length; target++) {
+                while (migrateInto(target)) {
+                    migrations.increment();
+                }
+            }
+            missed = pendingRebalances.addAndGet(-missed);
+        } while (missed != 0);
+    }
+    
+    private boolean migrateInto(int target) {
+        Library room = rooms[target];
+        for (int i = 1; i < rooms.length; i++) {
+            Waiter waiter = oldestWaiter((target + i) % rooms.length);
+            if (waiter == null || !hasRoomFor(room, waiter.writer)) {
+                continue;
+            }
+            
+            Permit migrated = waiter.writer ? room.tryStartWriting(waiter.name) : room.tryStartReading(waiter.name);
+            if (migrated == null) {
+                return false;
+            }
+            if (waiter.queued.cancel(false) && waiter.result.complete(migrated)) {
+                return true;
+            }
+            migrated.release();
+            return false;
+        }
+        return false;
+    }
+    
+    private Waiter oldestWaiter(int index) {
+        Queue<Waiter> queue = waiting.get(index);
+        Waiter waiter = queue.peek();
+        while (waiter != null && waiter.result.isDone()) {
+            queue.remove(waiter);
+            waiter = queue.peek();
+        }
+        return waiter;
+    }
+    
+    private static boolean hasRoomFor(Library room, boolean isWriter) {
+        return isWriter ? room.getLoad() == 0 : room.getLoad() < room.getMaxReaders();
+    }
+    
+    private int choose() {
+        if (rooms.length == 1) {
+            return 0;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(rooms.length);
+        int second = random.nextInt(rooms.length - 1);
+        if (second >= first) {
+            second++;
+        }
+        return rooms[first].getLoad() <= rooms[second].getLoad() ? first : second;
+    }
+    
+    public int getActiveReaders() {
+        int readers = 0;
+        for (Library room : rooms) {
+            readers += room.getActiveReaders();
+        }
+        return readers;
+    }
+    
+    public int getActiveWriters() {
+        int writers = 0;
+        for (Library room : rooms) {
+            writers += room.getActiveWriters();
+        }
+        return writers;
+    }
+    
+    public int getQueueSize() {
+        int queued = 0;
+        for (Library room : rooms) {
+            queued += room.getQueueSize();
+        }
+        return queued;
+    }
+    
+    public boolean isEmpty() {
+        for (Library room : rooms) {
+            if (!room.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public long getMigrations() {
+        return migrations.sum();
+    }
+    
+    public List<Library> getRooms() {
+        return Collections.unmodifiableList(Arrays.asList(rooms));
+    }
+}
@@ -0,0 +1,232 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+public class LibrarySet {
+    
+    private static final int ALL_HELD = -1;
+    static final int MAX_BACKOFFS = 8;
+    private static final long MIN_BACKOFF_NANOS = 10_000L;
+    private static final long MAX_BACKOFF_NANOS = 1_000_000L;
+    
+    public static class Access {
+        private final Library library;
+        private final boolean writer;
+        
+        private Access(Library library, boolean writer) {
+            this.library = library;
+            this.writer = writer;
+        }
+        
+        public Library getLibrary() {
+            return library;
+        }
+        
+        public boolean isWriter() {
+            return writer;
+        }
+    }
+    
+    public static class Grant implements AutoCloseable {
+        private final List<Permit> permits;
+        private final int backoffs;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+        
+        private Grant(List<Permit> permits, int backoffs) {
+            this.permits = permits;
+            this.backoffs = backoffs;
+        }
+        
+        public void release() {
+            if (!released.compareAndSet(false, true)) {
+                throw new IllegalStateException("Dostęp został już zwolniony");
+            }
+            releaseAll(permits);
+        }
+        
+        @Override
+        public void close() {
+            release();
+        }
+        
+        public List<Permit> getPermits() {
+            return Collections.unmodifiableList(permits);
+        }
+        
+        public int getBackoffs() {
+            return backoffs;
+        }
+        
+        public boolean isReleased() {
+            return released.get();
+        }
+    }
+    
+    private final List<Access> accesses;
+    private final LongAdder backoffs = new LongAdder();
+    
+    public LibrarySet(List<Access> requested) {
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("Zestaw czytelni nie może być pusty");
+        }
+        List<Access> sorted = new ArrayList<>(requested);
+        sorted.sort(Comparator.comparingLong(access -> access.library.getOrder()));
+        this.accesses = new ArrayList<>();
+        for (Access access : sorted) {
+            int last = accesses.size() - 1;
+            if (last >= 0 && accesses.get(last).library == access.library) {
+                if (access.writer) {
+                    accesses.set(last, access);
+                }
+            } else {
+                accesses.add(access);
+            }
+        }
+    }
+    
+    public static Access read(Library library) {
+        return new Access(library, false);
+    }
+    
+    public static Access write(Library library) {
+        return new Access(library, true);
+    }
+    
+    public Grant acquire(String name) {
+        Permit[] permits = new Permit[accesses.size()];
+        int blocking = 0;
+        int attempts = 0;
+        while (true) {
+            Access access = accesses.get(blocking);
+            permits[blocking] = access.writer ? access.library.startWriting(name) : access.library.startReading(name);
+            if (permits[blocking] == null) {
+                return null;
+            }
+            
+            int contended = tryOthers(name, permits, blocking);
+            if (contended == ALL_HELD) {
+                return new Grant(Arrays.asList(permits), attempts);
+            }
+            blocking = contended;
+            attempts++;
+            backoffs.increment();
+            if (attempts >= MAX_BACKOFFS) {
+                return acquireInOrder(name, attempts);
+            }
+            LockSupport.parkNanos(backoffNanos(attempts));
+        }
+    }
+    
+    public Grant acquireInOrder(String name) {
+        return acquireInOrder(name, 0);
+    }
+    
+    private Grant acquireInOrder(String name, int attempts) {
+        List<Permit> permits = new ArrayList<>(accesses.size());
+        for (Access access : accesses) {
+            Permit permit = access.writer ? access.library.startWriting(name) : access.library.startReading(name);
+            if (permit == null) {
+                releaseAll(permits);
+                return null;
+            }
+            permits.add(permit);
+        }
+        return new Grant(permits, attempts);
+    }
+    
+    public Grant tryAcquire(String name, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        Permit[] permits = new Permit[accesses.size()];
+        int blocking = 0;
+        int attempts = 0;
+        while (true) {
+            Access access = accesses.get(blocking);
+            long remaining = deadline - System.nanoTime();
+            permits[blocking] = access.writer
+                    ? access.library.tryStartWriting(name, remaining, TimeUnit.NANOSECONDS)
+                    : access.library.tryStartReading(name, remaining, TimeUnit.NANOSECONDS);
+            if (permits[blocking] == null) {
+                return null;
+            }
+            
+            int contended = tryOthers(name, permits, blocking);
+            if (contended == ALL_HELD) {
+                return new Grant(Arrays.asList(permits), attempts);
+            }
+            blocking = contended;
+            attempts++;
+            backoffs.increment();
+            if (attempts >= MAX_BACKOFFS) {
+                return tryAcquireInOrder(name, deadline, attempts);
+            }
+            LockSupport.parkNanos(Math.min(backoffNanos(attempts), deadline - System.nanoTime()));
+        }
+    }
+    
+    private Grant tryAcquireInOrder(String name, long deadline, int attempts) throws InterruptedException {
+        List<Permit> permits = new ArrayList<>(accesses.size());
+        try {
+            for (Access access : accesses) {
+                long remaining = deadline - System.nanoTime();
+                Permit permit = access.writer
+                        ? access.library.tryStartWriting(name, remaining, TimeUnit.NANOSECONDS)
+                        : access.library.tryStartReading(name, remaining, TimeUnit.NANOSECONDS);
+                if (permit == null) {
+                    releaseAll(permits);
+                    return null;
+                }
+                permits.add(permit);
+            }
+        } catch (InterruptedException e) {
+            releaseAll(permits);
+            throw e;
+        }
+        return new Grant(permits, attempts);
+    }
+    
+    private static long backoffNanos(int attempts) {
+        long window = Math.min(MAX_BACKOFF_NANOS, MIN_BACKOFF_NANOS << Math.min(attempts, 20));
+        return 1 + ThreadLocalRandom.current().nextLong(window);
+    }
+    
+    private int tryOthers(String name, Permit[] permits, int blocking) {
+        for (int i = 0; i < permits.length; i++) {
+            if (i == blocking) {
+                continue;
+            }
+            Access access = accesses.get(i);
+            permits[i] = access.writer ? access.library.tryStartWriting(name) : access.library.tryStartReading(name);
+            if (permits[i] == null) {
+                for (int held = permits.length - 1; held >= 0; held--) {
+                    if (permits[held] != null) {
+                        permits[held].release();
+                        permits[held] = null;
+                    }
+                }
+                return i;
+            }
+        }
+        return ALL_HELD;
+    }
+    
+    private static void releaseAll(List<Permit> permits) {
+        for (int i = permits.size() - 1; i >= 0; i--) {
+            permits.get(i).release();
+        }
+    }
+    
+    public List<Access> getAccesses() {
+        return Collections.unmodifiableList(accesses);
+    }
+    
+    public long getBackoffs() {
+        return backoffs.sum();
+    }
+}
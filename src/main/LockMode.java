@@ -0,0 +1,23 @@
+public enum LockMode {
+    IS,
+    IX,
+    S,
+    SIX,
+    X;
+    
+    private static final boolean[][] COMPATIBLE = {
+        {true, true, true, true, false},
+        {true, true, false, false, false},
+        {true, false, true, false, false},
+        {true, false, false, false, false},
+        {false, false, false, false, false}
+    };
+    
+    public boolean isCompatibleWith(LockMode other) {
+        return COMPATIBLE[ordinal()][other.ordinal()];
+    }
+    
+    public LockMode intention() {
+        return this == IS || this == S ? IS : IX;
+    }
+}
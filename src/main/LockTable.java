@@ -0,0 +1,218 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+public class LockTable {
+    
+    private static final int DEFAULT_SHARDS = 64;
+    private static final int DEFAULT_MAX_READERS = 5;
+    
+    private static class Entry {
+        final Library library;
+        int users = 0;
+        
+        Entry(Library library) {
+            this.library = library;
+        }
+    }
+    
+    private static class Shard {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<String, Entry> entries = new HashMap<>();
+    }
+    
+    public static class Lease implements AutoCloseable {
+        private final LockTable table;
+        private final String key;
+        private final Entry entry;
+        private final Permit permit;
+        
+        private Lease(LockTable table, String key, Entry entry, Permit permit) {
+            this.table = table;
+            this.key = key;
+            this.entry = entry;
+            this.permit = permit;
+        }
+        
+        public void release() {
+            permit.release();
+            table.releaseEntry(key, entry);
+        }
+        
+        @Override
+        public void close() {
+            release();
+        }
+        
+        public String getKey() {
+            return key;
+        }
+        
+        public Permit getPermit() {
+            return permit;
+        }
+        
+        public boolean isWriter() {
+            return permit.isWriter();
+        }
+        
+        public boolean isReleased() {
+            return permit.isReleased();
+        }
+    }
+    
+    private final Shard[] shards;
+    private final int maxReaders;
+    private final Supplier<AdmissionPolicy> policies;
+    private final LongAdder createdEntries = new LongAdder();
+    private final LongAdder evictedEntries = new LongAdder();
+    
+    public LockTable() {
+        this(DEFAULT_SHARDS, DEFAULT_MAX_READERS, FifoPolicy::new);
+    }
+    
+    public LockTable(int shardCount, int maxReaders, Supplier<AdmissionPolicy> policies) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Liczba segmentów musi być dodatnia: " + shardCount);
+        }
+        if (maxReaders < 1) {
+            throw new IllegalArgumentException("Pojemność czytelni musi być dodatnia: " + maxReaders);
+        }
+        int size = 1;
+        while (size < shardCount) {
+            size <<= 1;
+        }
+        this.shards = new Shard[size];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard();
+        }
+        this.maxReaders = maxReaders;
+        this.policies = policies;
+    }
+    
+    public Lease startReading(String key, String readerName) {
+        return acquire(key, readerName, false, false);
+    }
+    
+    public Lease startWriting(String key, String writerName) {
+        return acquire(key, writerName, true, false);
+    }
+    
+    public Lease tryStartReading(String key, String readerName) {
+        return acquire(key, readerName, false, true);
+    }
+    
+    public Lease tryStartWriting(String key, String writerName) {
+        return acquire(key, writerName, true, true);
+    }
+    
+    private Lease acquire(String key, String name, boolean isWriter, boolean tryOnly) {
+        Entry entry = retainEntry(key);
+        Permit permit = null;
+        try {
+            Library library = entry.library;
+            if (tryOnly) {
+                permit = isWriter ? library.tryStartWriting(name) : library.tryStartReading(name);
+            } else {
+                permit = isWriter ? library.startWriting(name) : library.startReading(name);
+            }
+        } finally {
+            if (permit == null) {
+                releaseEntry(key, entry);
+            }
+        }
+        return permit == null ? null : new Lease(this, key, entry, permit);
+    }
+    
+    private Entry retainEntry(String key) {
+        Shard shard = shardFor(key);
+        shard.lock.lock();
+        try {
+            Entry entry = shard.entries.get(key);
+            if (entry == null) {
+                entry = new Entry(new Library(EventLog.silent(), false, maxReaders, policies.get()));
+                shard.entries.put(key, entry);
+                createdEntries.increment();
+            }
+            entry.users++;
+            return entry;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+    
+    private void releaseEntry(String key, Entry entry) {
+        Shard shard = shardFor(key);
+        shard.lock.lock();
+        try {
+            if (--entry.users == 0) {
+                shard.entries.remove(key);
+                evictedEntries.increment();
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+    
+    private Shard shardFor(String key) {
+        int hash = key.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & (shards.length - 1)];
+    }
+    
+    private Library peek(String key) {
+        Shard shard = shardFor(key);
+        shard.lock.lock();
+        try {
+            Entry entry = shard.entries.get(key);
+            return entry == null ? null : entry.library;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+    
+    public int getActiveReaders(String key) {
+        Library library = peek(key);
+        return library == null ? 0 : library.getActiveReaders();
+    }
+    
+    public int getActiveWriters(String key) {
+        Library library = peek(key);
+        return library == null ? 0 : library.getActiveWriters();
+    }
+    
+    public int getQueueSize(String key) {
+        Library library = peek(key);
+        return library == null ? 0 : library.getQueueSize();
+    }
+    
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                size += shard.entries.size();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return size;
+    }
+    
+    public int getShardCount() {
+        return shards.length;
+    }
+    
+    public int getMaxReaders() {
+        return maxReaders;
+    }
+    
+    public long getCreatedEntries() {
+        return createdEntries.sum();
+    }
+    
+    public long getEvictedEntries() {
+        return evictedEntries.sum();
+    }
+}
@@ -1,4 +1,5 @@
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class Main {
@@ -8,13 +9,33 @@ public class Main {
     private static final int DEFAULT_MIN_TIME = 1000;
     private static final int DEFAULT_MAX_TIME = 3000;
     private static final int DEFAULT_SLEEP_TIME = 500;
+    private static final int DEFAULT_OUTPUT_LEVEL = 2;
+    private static final int DEFAULT_SAMPLING = 1;
+    private static final String DEFAULT_POLICY = "fifo";
+    private static final String DEFAULT_THREADS = "platformowe";
+    private static final String VIRTUAL_THREADS = "wirtualne";
     
     public static void main(String[] args) {
+        if (args != null && args.length > 0 && "benchmark".equals(args[0])) {
+            try {
+                PolicyBenchmark.main(Arrays.copyOfRange(args, 1, args.length));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        }
+        if (args != null && args.length > 0 && "symulacja".equals(args[0])) {
+            Simulation.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        
         int numReaders = parseArgument(args, 0, DEFAULT_READERS, "liczba czytelników");
         int numWriters = parseArgument(args, 1, DEFAULT_WRITERS, "liczba pisarzy");
         int minTime = parseArgument(args, 2, DEFAULT_MIN_TIME, "minimalny czas");
         int maxTime = parseArgument(args, 3, DEFAULT_MAX_TIME, "maksymalny czas");
         int sleepTime = parseArgument(args, 4, DEFAULT_SLEEP_TIME, "czas snu");
+        int outputLevel = parseArgument(args, 5, DEFAULT_OUTPUT_LEVEL, "poziom wydruku");
+        int sampling = parseArgument(args, 6, DEFAULT_SAMPLING, "próbkowanie");
         
         if (numReaders < 0 || numWriters < 0) {
             System.err.println("Liczba czytelników i pisarzy musi być nieujemna!");
@@ -26,6 +47,35 @@ public class Main {
             System.exit(1);
         }
         
+        if (outputLevel < 0 || outputLevel >= EventLog.Level.values().length || sampling < 1) {
+            System.err.println("Poziom wydruku musi być z zakresu 0-2, a próbkowanie dodatnie!");
+            System.exit(1);
+        }
+        
+        AdmissionPolicy policy = null;
+        try {
+            policy = AdmissionPolicy.byName(args != null && args.length > 7 ? args[7] : DEFAULT_POLICY);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+        
+        boolean virtualThreads = false;
+        try {
+            virtualThreads = parseVirtualThreads(args != null && args.length > 8 ? args[8] : DEFAULT_THREADS);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+        
+        Workload workload = null;
+        try {
+            workload = parseWorkload(args, minTime, maxTime, sleepTime);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+        
         System.out.println("╔════════════════════════════════════════════════════════╗");
         System.out.println("║     PROBLEM CZYTELNIKÓW I PISARZY - DEMONSTRACJA       ║");
         System.out.println("╠════════════════════════════════════════════════════════╣");
@@ -34,6 +84,10 @@ public class Main {
         System.out.printf("║   Liczba pisarzy: %-37d ║%n", numWriters);
         System.out.printf("║   Czas w czytelni: %d-%d ms %-23s ║%n", minTime, maxTime, "");
         System.out.printf("║   Czas snu między operacjami: %-25d ║%n", sleepTime);
+        System.out.printf("║   Poziom wydruku: %-37s ║%n", EventLog.Level.values()[outputLevel]);
+        System.out.printf("║   Polityka wpuszczania: %-31s ║%n", policy.getName());
+        System.out.printf("║   Wątki: %-45s ║%n", virtualThreads ? VIRTUAL_THREADS : DEFAULT_THREADS);
+        System.out.printf("║   Ziarno: %-44d ║%n", workload.getSeed());
         System.out.println("║                                                        ║");
         System.out.println("║ Zasady czytelni:                                       ║");
         System.out.println("║   - Maksymalnie 5 czytelników jednocześnie             ║");
@@ -44,18 +98,19 @@ public class Main {
         System.out.println("╚════════════════════════════════════════════════════════╝");
         System.out.println();
         
-        Library library = new Library();
+        EventLog events = new EventLog(System.out, EventLog.Level.values()[outputLevel], sampling);
+        Library library = new Library(events, false, 5, policy);
         
         List<Reader> readers = new ArrayList<>();
         List<Writer> writers = new ArrayList<>();
         
         for (int i = 1; i <= numReaders; i++) {
-            Reader reader = new Reader(library, "Czytelnik-" + i, minTime, maxTime, sleepTime);
+            Reader reader = new Reader(library, "Czytelnik-" + i, workload);
             readers.add(reader);
         }
         
         for (int i = 1; i <= numWriters; i++) {
-            Writer writer = new Writer(library, "Pisarz-" + i, minTime, maxTime, sleepTime);
+            Writer writer = new Writer(library, "Pisarz-" + i, workload);
             writers.add(writer);
         }
         
@@ -70,28 +125,23 @@ public class Main {
             }
             
             for (Reader reader : readers) {
-                try {
-                    reader.join(1000);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
+                awaitWorker(reader.getWorker());
             }
             for (Writer writer : writers) {
-                try {
-                    writer.join(1000);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
+                awaitWorker(writer.getWorker());
             }
             
+            events.close();
+            System.out.println("Ukończone odczyty: " + library.getCompletedReads());
             System.out.println("Program zakończony.");
         }));
         
+        Thread.Builder threads = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform();
         for (Reader reader : readers) {
-            reader.start();
+            reader.start(threads);
         }
         for (Writer writer : writers) {
-            writer.start();
+            writer.start(threads);
         }
         
         try {
@@ -101,6 +151,17 @@ public class Main {
         }
     }
     
+    private static void awaitWorker(Thread worker) {
+        if (worker == null) {
+            return;
+        }
+        try {
+            worker.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
     static int parseArgument(String[] args, int index, int defaultValue, String name) {
         if (args == null || args.length <= index) {
             return defaultValue;
@@ -114,6 +175,35 @@ public class Main {
         }
     }
     
+    static boolean parseVirtualThreads(String value) {
+        if (VIRTUAL_THREADS.equalsIgnoreCase(value)) {
+            return true;
+        }
+        if (DEFAULT_THREADS.equalsIgnoreCase(value)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Nieznany rodzaj wątków: " + value);
+    }
+    
+    static Workload parseWorkload(String[] args, int minTime, int maxTime, int sleepTime) {
+        int given = args == null ? 0 : args.length;
+        long seed = Workload.randomSeed();
+        if (given > 9) {
+            try {
+                seed = Long.parseLong(args[9]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Nieprawidłowe ziarno: " + args[9]);
+            }
+        }
+        
+        Workload defaults = Workload.uniform(seed, minTime, maxTime, sleepTime);
+        TimeDistribution readTime = given > 10 ? TimeDistribution.parse(args[10]) : defaults.getReadTime();
+        TimeDistribution writeTime = given > 11 ? TimeDistribution.parse(args[11]) : defaults.getWriteTime();
+        TimeDistribution readerThinkTime = given > 12 ? TimeDistribution.parse(args[12]) : defaults.getReaderThinkTime();
+        TimeDistribution writerThinkTime = given > 13 ? TimeDistribution.parse(args[13]) : readerThinkTime;
+        return new Workload(seed, readTime, readerThinkTime, writeTime, writerThinkTime);
+    }
+    
     public static int getDefaultReaders() {
         return DEFAULT_READERS;
     }
@@ -133,4 +223,20 @@ public class Main {
     public static int getDefaultSleepTime() {
         return DEFAULT_SLEEP_TIME;
     }
+    
+    public static int getDefaultOutputLevel() {
+        return DEFAULT_OUTPUT_LEVEL;
+    }
+    
+    public static int getDefaultSampling() {
+        return DEFAULT_SAMPLING;
+    }
+    
+    public static String getDefaultPolicy() {
+        return DEFAULT_POLICY;
+    }
+    
+    public static String getDefaultThreads() {
+        return DEFAULT_THREADS;
+    }
 }
@@ -0,0 +1,90 @@
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+public class Permit implements AutoCloseable {
+    
+    private static final AtomicIntegerFieldUpdater<Permit> RELEASED =
+            AtomicIntegerFieldUpdater.newUpdater(Permit.class, "released");
+            
+    private final Library library;
+    private final String name;
+    private final boolean writer;
+    private final int stripe;
+    private final long enteredAt;
+    private final long expectedNanos;
+    private final boolean updater;
+    private final boolean tracked;
+    private volatile int released = 0;
+    
+    Permit(Library library, String name, boolean writer, int stripe, long expectedNanos) {
+        this(library, name, writer, stripe, expectedNanos, false, false);
+    }
+    
+    Permit(Library library, String name, boolean writer, int stripe, long expectedNanos, boolean updater,
+           boolean tracked) {
+        this.library = library;
+        this.name = name;
+        this.writer = writer;
+        this.stripe = stripe;
+        this.enteredAt = tracked ? library.nanoTime() : 0L;
+        this.expectedNanos = expectedNanos;
+        this.updater = updater;
+        this.tracked = tracked;
+    }
+    
+    public void release() {
+        library.release(this);
+    }
+    
+    @Override
+    public void close() {
+        release();
+    }
+    
+    public Permit upgrade() {
+        return library.upgrade(this);
+    }
+    
+    public Permit downgrade() {
+        return library.downgrade(this);
+    }
+    
+    boolean markReleased() {
+        return RELEASED.compareAndSet(this, 0, 1);
+    }
+    
+    int getStripe() {
+        return stripe;
+    }
+    
+    long getEnteredAt() {
+        return enteredAt;
+    }
+    
+    long getExpectedNanos() {
+        return expectedNanos;
+    }
+    
+    boolean isTracked() {
+        return tracked;
+    }
+    
+    public boolean isReleased() {
+        return released != 0;
+    }
+    
+    public Library getLibrary() {
+        return library;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public boolean isWriter() {
+        return writer;
+    }
+    
+    public boolean isUpdater() {
+        return updater;
+    }
+}
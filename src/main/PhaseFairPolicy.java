@@ -0,0 +1,24 @@
+public class PhaseFairPolicy implements AdmissionPolicy {
+    
+    private long readPhaseEnd = 0;
+    
+    @Override
+    public boolean canReaderEnter(AdmissionView view, long ticket) {
+        return view.getOldestWriterTicket() == NONE_WAITING || ticket < readPhaseEnd;
+    }
+    
+    @Override
+    public boolean canWriterEnter(AdmissionView view, long ticket) {
+        return view.getOldestReaderTicket() >= readPhaseEnd;
+    }
+    
+    @Override
+    public void onWriterExit(AdmissionView view) {
+        readPhaseEnd = view.getNextTicket();
+    }
+    
+    @Override
+    public String getName() {
+        return "fazy";
+    }
+}
@@ -0,0 +1,190 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+public class PolicyBenchmark {
+    
+    private static final int DEFAULT_READERS = 8;
+    private static final int DEFAULT_WRITERS = 2;
+    private static final int DEFAULT_DURATION_MS = 2000;
+    private static final int DEFAULT_READ_MICROS = 200;
+    private static final int DEFAULT_WRITE_MICROS = 400;
+    private static final int DEFAULT_THINK_MICROS = 500;
+    
+    private final int readers;
+    private final int writers;
+    private final int durationMillis;
+    private final int readMicros;
+    private final int writeMicros;
+    private final int thinkMicros;
+    
+    public PolicyBenchmark(int readers, int writers, int durationMillis) {
+        this(readers, writers, durationMillis, DEFAULT_READ_MICROS, DEFAULT_WRITE_MICROS, DEFAULT_THINK_MICROS);
+    }
+    
+    public PolicyBenchmark(int readers, int writers, int durationMillis, int readMicros, int writeMicros, int thinkMicros) {
+        if (readers < 0 || writers < 0 || durationMillis < 1) {
+            throw new IllegalArgumentException("Nieprawidłowe parametry pomiaru");
+        }
+        this.readers = readers;
+        this.writers = writers;
+        this.durationMillis = durationMillis;
+        this.readMicros = readMicros;
+        this.writeMicros = writeMicros;
+        this.thinkMicros = thinkMicros;
+    }
+    
+    public static class Result {
+        private final String policy;
+        private final double seconds;
+        private final long[] readWaits;
+        private final long[] writeWaits;
+        
+        Result(String policy, double seconds, long[] readWaits, long[] writeWaits) {
+            this.policy = policy;
+            this.seconds = seconds;
+            this.readWaits = readWaits;
+            this.writeWaits = writeWaits;
+        }
+        
+        public String getPolicy() {
+            return policy;
+        }
+        
+        public long getReads() {
+            return readWaits.length;
+        }
+        
+        public long getWrites() {
+            return writeWaits.length;
+        }
+        
+        public double getReadThroughput() {
+            return readWaits.length / seconds;
+        }
+        
+        public double getWriteThroughput() {
+            return writeWaits.length / seconds;
+        }
+        
+        public long getReadP99Nanos() {
+            return percentile(readWaits, 0.99);
+        }
+        
+        public long getWriteP99Nanos() {
+            return percentile(writeWaits, 0.99);
+        }
+    }
+    
+    private class Worker extends Thread {
+        private final Library library;
+        private final boolean writer;
+        private final long deadline;
+        private long[] waits = new long[1024];
+        private int count = 0;
+        
+        Worker(Library library, boolean writer, String name, long deadline) {
+            super(name);
+            this.library = library;
+            this.writer = writer;
+            this.deadline = deadline;
+        }
+        
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                long requested = System.nanoTime();
+                Permit permit = writer ? library.startWriting(getName()) : library.startReading(getName());
+                record(System.nanoTime() - requested);
+                LockSupport.parkNanos((writer ? writeMicros : readMicros) * 1000L);
+                permit.release();
+                if (thinkMicros > 0) {
+                    LockSupport.parkNanos(random.nextInt(thinkMicros) * 1000L);
+                }
+            }
+        }
+        
+        private void record(long wait) {
+            if (count == waits.length) {
+                waits = Arrays.copyOf(waits, count * 2);
+            }
+            waits[count++] = wait;
+        }
+    }
+    
+    public Result run(AdmissionPolicy policy) throws InterruptedException {
+        Library library = new Library(EventLog.silent(), false, 5, policy);
+        long start = System.nanoTime();
+        long deadline = start + durationMillis * 1_000_000L;
+        
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 1; i <= readers; i++) {
+            workers.add(new Worker(library, false, "Czytelnik-" + i, deadline));
+        }
+        for (int i = 1; i <= writers; i++) {
+            workers.add(new Worker(library, true, "Pisarz-" + i, deadline));
+        }
+        for (Worker worker : workers) {
+            worker.start();
+        }
+        for (Worker worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        
+        return new Result(policy.getName(), seconds, collect(workers, false), collect(workers, true));
+    }
+    
+    private static long[] collect(List<Worker> workers, boolean writer) {
+        int total = 0;
+        for (Worker worker : workers) {
+            if (worker.writer == writer) {
+                total += worker.count;
+            }
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (Worker worker : workers) {
+            if (worker.writer == writer) {
+                System.arraycopy(worker.waits, 0, all, offset, worker.count);
+                offset += worker.count;
+            }
+        }
+        Arrays.sort(all);
+        return all;
+    }
+    
+    static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+    
+    public List<Result> runAll() throws InterruptedException {
+        List<Result> results = new ArrayList<>();
+        for (String name : List.of("fifo", "czytelnicy", "pisarze", "fazy", "obejscie")) {
+            results.add(run(AdmissionPolicy.byName(name)));
+        }
+        return results;
+    }
+    
+    public static void main(String[] args) throws InterruptedException {
+        int readers = Main.parseArgument(args, 0, DEFAULT_READERS, "liczba czytelników");
+        int writers = Main.parseArgument(args, 1, DEFAULT_WRITERS, "liczba pisarzy");
+        int duration = Main.parseArgument(args, 2, DEFAULT_DURATION_MS, "czas pomiaru");
+        
+        PolicyBenchmark benchmark = new PolicyBenchmark(readers, writers, duration);
+        System.out.printf("POMIAR POLITYK: %d czytelników, %d pisarzy, %d ms na politykę%n", readers, writers, duration);
+        System.out.printf("%-12s %12s %12s %18s %18s%n", "Polityka", "odczyty/s", "zapisy/s", "p99 czyt. [ms]", "p99 pis. [ms]");
+        for (Result result : benchmark.runAll()) {
+            System.out.printf("%-12s %12.1f %12.1f %18.3f %18.3f%n", result.getPolicy(),
+                    result.getReadThroughput(), result.getWriteThroughput(),
+                    result.getReadP99Nanos() / 1e6, result.getWriteP99Nanos() / 1e6);
+        }
+    }
+}
@@ -1,41 +1,57 @@
-import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
-public class Reader extends Thread {
+public class Reader implements Runnable {
     
     private final Library library;
     private final String readerName;
     private final int minReadTime;
     private final int maxReadTime;
     private final int sleepBetweenOperations;
-    private final Random random = new Random();
+    private final Workload.Source times;
     private volatile boolean running = true;
+    private volatile Thread worker;
     
     public Reader(Library library, String readerName) {
         this(library, readerName, 1000, 3000, 500);
     }
     
     public Reader(Library library, String readerName, int minReadTime, int maxReadTime, int sleepBetweenOperations) {
+        this(library, readerName, minReadTime, maxReadTime, sleepBetweenOperations,
+                Workload.uniform(Workload.randomSeed(), minReadTime, maxReadTime, sleepBetweenOperations));
+    }
+    
+    public Reader(Library library, String readerName, Workload workload) {
+        this(library, readerName, 0, 0, 0, workload);
+    }
+    
+    private Reader(Library library, String readerName, int minReadTime, int maxReadTime, int sleepBetweenOperations,
+                   Workload workload) {
         this.library = library;
         this.readerName = readerName;
         this.minReadTime = minReadTime;
         this.maxReadTime = maxReadTime;
         this.sleepBetweenOperations = sleepBetweenOperations;
-        setName(readerName);
+        this.times = workload.readerSource(readerName);
     }
     
     @Override
     public void run() {
         while (running && !Thread.currentThread().isInterrupted()) {
             try {
-                library.startReading(readerName);
-                
-                int readTime = minReadTime + random.nextInt(maxReadTime - minReadTime + 1);
-                Thread.sleep(readTime);
-                
-                library.stopReading(readerName);
+                long readTime = times.nextServiceMillis();
+                Permit permit = library.startReadingFor(readerName, readTime, TimeUnit.MILLISECONDS);
+                if (permit == null) {
+                    break;
+                }
+                try {
+                    Thread.sleep(readTime);
+                } finally {
+                    permit.release();
+                }
                 
-                if (sleepBetweenOperations > 0) {
-                    Thread.sleep(random.nextInt(sleepBetweenOperations));
+                long thinkTime = times.nextThinkMillis();
+                if (thinkTime > 0) {
+                    Thread.sleep(thinkTime);
                 }
                 
             } catch (InterruptedException e) {
@@ -45,9 +61,34 @@ public class Reader extends Thread {
         }
     }
     
+    public Thread start() {
+        return start(Thread.ofPlatform());
+    }
+    
+    public Thread startVirtual() {
+        return start(Thread.ofVirtual());
+    }
+    
+    public synchronized Thread start(Thread.Builder builder) {
+        if (worker != null) {
+            throw new IllegalStateException("Czytelnik " + readerName + " został już uruchomiony");
+        }
+        Thread thread = builder.name(readerName).unstarted(this);
+        worker = thread;
+        thread.start();
+        return thread;
+    }
+    
     public void stopRunning() {
         running = false;
-        this.interrupt();
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+    
+    public Thread getWorker() {
+        return worker;
     }
     
     public void setRunning(boolean running) {
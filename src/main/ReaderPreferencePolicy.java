@@ -0,0 +1,17 @@
+public class ReaderPreferencePolicy implements AdmissionPolicy {
+    
+    @Override
+    public boolean canReaderEnter(AdmissionView view, long ticket) {
+        return true;
+    }
+    
+    @Override
+    public boolean canWriterEnter(AdmissionView view, long ticket) {
+        return view.getOldestReaderTicket() == NONE_WAITING;
+    }
+    
+    @Override
+    public String getName() {
+        return "czytelnicy";
+    }
+}
@@ -0,0 +1,68 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+class ReaderStripes {
+    
+    private static final int PADDING = 16;
+    private static final int COUNT = 0;
+    private static final int QUOTA = 1;
+    
+    private final int stripes;
+    private final AtomicIntegerArray slots;
+    
+    ReaderStripes(int stripes, int capacity) {
+        if (stripes < 1 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Liczba pasów musi być potęgą dwójki: " + stripes);
+        }
+        this.stripes = stripes;
+        this.slots = new AtomicIntegerArray(stripes * PADDING);
+        setCapacity(capacity);
+    }
+    
+    static int defaultStripes() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        return cores <= 1 ? 1 : Integer.highestOneBit(cores - 1) << 1;
+    }
+    
+    int stripeCount() {
+        return stripes;
+    }
+    
+    int homeStripe() {
+        long id = Thread.currentThread().threadId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (stripes - 1);
+    }
+    
+    int tryAcquire(int home) {
+        for (int i = 0; i < stripes; i++) {
+            int stripe = (home + i) & (stripes - 1);
+            int count = slots.get(stripe * PADDING + COUNT);
+            while (count < slots.get(stripe * PADDING + QUOTA)) {
+                if (slots.compareAndSet(stripe * PADDING + COUNT, count, count + 1)) {
+                    return stripe;
+                }
+                count = slots.get(stripe * PADDING + COUNT);
+            }
+        }
+        return -1;
+    }
+    
+    void release(int stripe) {
+        slots.decrementAndGet(stripe * PADDING + COUNT);
+    }
+    
+    int sum() {
+        int total = 0;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            total += slots.get(stripe * PADDING + COUNT);
+        }
+        return total;
+    }
+    
+    void setCapacity(int capacity) {
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            int quota = capacity / stripes + (stripe < capacity % stripes ? 1 : 0);
+            slots.set(stripe * PADDING + QUOTA, quota);
+        }
+    }
+}
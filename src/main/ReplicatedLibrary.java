@@ -0,0 +1,90 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ReplicatedLibrary {
+    
+    private final Library[] replicas;
+    private final LibrarySet writeSet;
+    
+    public ReplicatedLibrary(int replicaCount, int maxReaders) {
+        this(EventLog.silent(), replicaCount, maxReaders);
+    }
+    
+    public ReplicatedLibrary(EventLog events, int replicaCount, int maxReaders) {
+        if (replicaCount < 1) {
+            throw new IllegalArgumentException("Liczba replik musi być dodatnia: " + replicaCount);
+        }
+        this.replicas = new Library[replicaCount];
+        List<LibrarySet.Access> writes = new ArrayList<>();
+        for (int i = 0; i < replicaCount; i++) {
+            replicas[i] = new Library(events, false, maxReaders);
+            writes.add(LibrarySet.write(replicas[i]));
+        }
+        this.writeSet = new LibrarySet(writes);
+    }
+    
+    public Permit startReading(String readerName) {
+        Integer[] order = new Integer[replicas.length];
+        int[] loads = new int[replicas.length];
+        for (int i = 0; i < replicas.length; i++) {
+            order[i] = i;
+            loads[i] = replicas[i].getLoad();
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(loads[a], loads[b]));
+        
+        for (int index : order) {
+            Permit permit = replicas[index].tryStartReading(readerName);
+            if (permit != null) {
+                return permit;
+            }
+        }
+        return replicas[order[0]].startReading(readerName);
+    }
+    
+    public LibrarySet.Grant startWriting(String writerName) {
+        return writeSet.acquireInOrder(writerName);
+    }
+    
+    public int getActiveReaders() {
+        int readers = 0;
+        for (Library replica : replicas) {
+            readers += replica.getActiveReaders();
+        }
+        return readers;
+    }
+    
+    public int getQueueSize() {
+        int queued = 0;
+        for (Library replica : replicas) {
+            queued += replica.getQueueSize();
+        }
+        return queued;
+    }
+    
+    public int getReadCapacity() {
+        int capacity = 0;
+        for (Library replica : replicas) {
+            capacity += replica.getMaxReaders();
+        }
+        return capacity;
+    }
+    
+    public boolean isEmpty() {
+        for (Library replica : replicas) {
+            if (!replica.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public List<Library> getReplicas() {
+        return Collections.unmodifiableList(Arrays.asList(replicas));
+    }
+    
+    public int getReplicaCount() {
+        return replicas.length;
+    }
+}
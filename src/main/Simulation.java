@@ -0,0 +1,273 @@
+import java.io.PrintStream;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+public final class Simulation implements AutoCloseable {
+    
+    private static final int DEFAULT_READERS = 1000;
+    private static final int DEFAULT_WRITERS = 100;
+    private static final int DEFAULT_DURATION_MINUTES = 24 * 60;
+    private static final int DEFAULT_SEED = 42;
+    private static final String DEFAULT_POLICY = "fifo";
+    private static final int DEFAULT_OUTPUT_LEVEL = 0;
+    private static final int DEFAULT_MAX_READERS = 5;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    
+    private static class Participant {
+        final String name;
+        final boolean writer;
+        final Workload.Source times;
+        long requestedAt;
+        long serviceNanos;
+        Permit permit;
+        
+        Participant(String name, boolean writer, Workload.Source times) {
+            this.name = name;
+            this.writer = writer;
+            this.times = times;
+        }
+    }
+    
+    private static class Scheduled implements Comparable<Scheduled> {
+        final long time;
+        final long order;
+        final Participant participant;
+        final boolean departure;
+        
+        Scheduled(long time, long order, Participant participant, boolean departure) {
+            this.time = time;
+            this.order = order;
+            this.participant = participant;
+            this.departure = departure;
+        }
+        
+        @Override
+        public int compareTo(Scheduled other) {
+            if (time != other.time) {
+                return Long.compare(time, other.time);
+            }
+            return Long.compare(order, other.order);
+        }
+    }
+    
+    public static class Result {
+        private final long simulatedNanos;
+        private final long processedEvents;
+        private final long completedReads;
+        private final long completedWrites;
+        private final long totalReadWaitNanos;
+        private final long totalWriteWaitNanos;
+        private final long maxReadWaitNanos;
+        private final long maxWriteWaitNanos;
+        
+        Result(long simulatedNanos, long processedEvents, long completedReads, long completedWrites,
+               long totalReadWaitNanos, long totalWriteWaitNanos, long maxReadWaitNanos, long maxWriteWaitNanos) {
+            this.simulatedNanos = simulatedNanos;
+            this.processedEvents = processedEvents;
+            this.completedReads = completedReads;
+            this.completedWrites = completedWrites;
+            this.totalReadWaitNanos = totalReadWaitNanos;
+            this.totalWriteWaitNanos = totalWriteWaitNanos;
+            this.maxReadWaitNanos = maxReadWaitNanos;
+            this.maxWriteWaitNanos = maxWriteWaitNanos;
+        }
+        
+        public long getSimulatedNanos() {
+            return simulatedNanos;
+        }
+        
+        public long getProcessedEvents() {
+            return processedEvents;
+        }
+        
+        public long getCompletedReads() {
+            return completedReads;
+        }
+        
+        public long getCompletedWrites() {
+            return completedWrites;
+        }
+        
+        public double getMeanReadWaitNanos() {
+            return completedReads == 0 ? 0 : (double) totalReadWaitNanos / completedReads;
+        }
+        
+        public double getMeanWriteWaitNanos() {
+            return completedWrites == 0 ? 0 : (double) totalWriteWaitNanos / completedWrites;
+        }
+        
+        public long getMaxReadWaitNanos() {
+            return maxReadWaitNanos;
+        }
+        
+        public long getMaxWriteWaitNanos() {
+            return maxWriteWaitNanos;
+        }
+    }
+    
+    private final Workload workload;
+    private final EventLog events;
+    private final boolean ownsEvents;
+    private final Library library;
+    
+    private final PriorityQueue<Scheduled> agenda = new PriorityQueue<>();
+    private long now = 0;
+    private long nextOrder = 0;
+    
+    private long processedEvents;
+    private long completedReads;
+    private long completedWrites;
+    private long totalReadWaitNanos;
+    private long totalWriteWaitNanos;
+    private long maxReadWaitNanos;
+    private long maxWriteWaitNanos;
+    
+    public Simulation(Workload workload, AdmissionPolicy policy, int maxReaders) {
+        this(workload, policy, maxReaders, null, EventLog.Level.SILENT);
+    }
+    
+    public Simulation(Workload workload, AdmissionPolicy policy, int maxReaders, PrintStream trace,
+                      EventLog.Level level) {
+        this.workload = workload;
+        this.ownsEvents = level != EventLog.Level.SILENT;
+        this.events = ownsEvents
+                ? EventLog.synchronous(trace, level, 1, this::getNanoTime)
+                : EventLog.silent();
+        this.library = new Library(events, maxReaders, policy, this::getNanoTime, Runnable::run);
+    }
+    
+    public void addReaders(int count) {
+        for (int i = 1; i <= count; i++) {
+            addReader("Czytelnik-" + i, 0);
+        }
+    }
+    
+    public void addWriters(int count) {
+        for (int i = 1; i <= count; i++) {
+            addWriter("Pisarz-" + i, 0);
+        }
+    }
+    
+    public void addReader(String readerName, long startMillis) {
+        schedule(startMillis * NANOS_PER_MILLI, new Participant(readerName, false, workload.readerSource(readerName)), false);
+    }
+    
+    public void addWriter(String writerName, long startMillis) {
+        schedule(startMillis * NANOS_PER_MILLI, new Participant(writerName, true, workload.writerSource(writerName)), false);
+    }
+    
+    public Result run(long duration, TimeUnit unit) {
+        long end = now + unit.toNanos(duration);
+        while (!agenda.isEmpty() && agenda.peek().time <= end) {
+            Scheduled next = agenda.poll();
+            now = next.time;
+            processedEvents++;
+            if (next.departure) {
+                depart(next.participant);
+            } else {
+                arrive(next.participant);
+            }
+        }
+        now = Math.max(now, end);
+        return new Result(now, processedEvents, completedReads, completedWrites, totalReadWaitNanos,
+                totalWriteWaitNanos, maxReadWaitNanos, maxWriteWaitNanos);
+    }
+    
+    @Override
+    public void close() {
+        if (ownsEvents) {
+            events.close();
+        }
+    }
+    
+    private void schedule(long time, Participant participant, boolean departure) {
+        agenda.add(new Scheduled(time, nextOrder++, participant, departure));
+    }
+    
+    private void arrive(Participant participant) {
+        participant.requestedAt = now;
+        participant.serviceNanos = participant.times.nextServiceMillis() * NANOS_PER_MILLI;
+        library.acquireAsync(participant.name, participant.writer, participant.serviceNanos)
+                .thenAccept(permit -> enter(participant, permit));
+    }
+    
+    private void enter(Participant participant, Permit permit) {
+        participant.permit = permit;
+        long waited = now - participant.requestedAt;
+        if (participant.writer) {
+            totalWriteWaitNanos += waited;
+            maxWriteWaitNanos = Math.max(maxWriteWaitNanos, waited);
+        } else {
+            totalReadWaitNanos += waited;
+            maxReadWaitNanos = Math.max(maxReadWaitNanos, waited);
+        }
+        schedule(now + participant.serviceNanos, participant, true);
+    }
+    
+    private void depart(Participant participant) {
+        Permit permit = participant.permit;
+        participant.permit = null;
+        permit.release();
+        if (participant.writer) {
+            completedWrites++;
+        } else {
+            completedReads++;
+        }
+        schedule(now + participant.times.nextThinkMillis() * NANOS_PER_MILLI, participant, false);
+    }
+    
+    public long getNanoTime() {
+        return now;
+    }
+    
+    public int getActiveReaders() {
+        return library.getActiveReaders();
+    }
+    
+    public int getActiveWriters() {
+        return library.getActiveWriters();
+    }
+    
+    public int getQueueSize() {
+        return library.getQueueSize();
+    }
+    
+    public Library getLibrary() {
+        return library;
+    }
+    
+    public static void main(String[] args) {
+        int readers = Main.parseArgument(args, 0, DEFAULT_READERS, "liczba czytelników");
+        int writers = Main.parseArgument(args, 1, DEFAULT_WRITERS, "liczba pisarzy");
+        int minutes = Main.parseArgument(args, 2, DEFAULT_DURATION_MINUTES, "czas symulacji");
+        int seed = Main.parseArgument(args, 3, DEFAULT_SEED, "ziarno");
+        AdmissionPolicy policy = AdmissionPolicy.byName(args != null && args.length > 4 ? args[4] : DEFAULT_POLICY);
+        int outputLevel = Main.parseArgument(args, 5, DEFAULT_OUTPUT_LEVEL, "poziom wydruku");
+        if (outputLevel < 0 || outputLevel >= EventLog.Level.values().length) {
+            System.err.println("Poziom wydruku musi być z zakresu 0-" + (EventLog.Level.values().length - 1));
+            System.exit(1);
+        }
+        
+        Workload workload = Workload.uniform(seed, Main.getDefaultMinTime(), Main.getDefaultMaxTime(),
+                Main.getDefaultSleepTime());
+        Simulation simulation = new Simulation(workload, policy, DEFAULT_MAX_READERS, System.out,
+                EventLog.Level.values()[outputLevel]);
+        simulation.addReaders(readers);
+        simulation.addWriters(writers);
+        
+        System.out.printf("SYMULACJA: %d czytelników, %d pisarzy, %d min, polityka %s, ziarno %d%n",
+                readers, writers, minutes, policy.getName(), seed);
+        long started = System.nanoTime();
+        Result result;
+        try (simulation) {
+            result = simulation.run(minutes, TimeUnit.MINUTES);
+        }
+        double wallSeconds = (System.nanoTime() - started) / 1e9;
+        
+        System.out.printf("Zdarzenia: %d w %.2f s%n", result.getProcessedEvents(), wallSeconds);
+        System.out.printf("Odczyty: %d, średnie czekanie %.3f ms, maks. %.3f ms%n", result.getCompletedReads(),
+                result.getMeanReadWaitNanos() / 1e6, result.getMaxReadWaitNanos() / 1e6);
+        System.out.printf("Zapisy: %d, średnie czekanie %.3f ms, maks. %.3f ms%n", result.getCompletedWrites(),
+                result.getMeanWriteWaitNanos() / 1e6, result.getMaxWriteWaitNanos() / 1e6);
+    }
+}
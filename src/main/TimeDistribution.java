@@ -0,0 +1,127 @@
+import java.util.SplittableRandom;
+
+public final class TimeDistribution {
+    
+    public enum Kind {
+        CONSTANT("staly"),
+        UNIFORM("jednostajny"),
+        EXPONENTIAL("wykladniczy"),
+        LOG_NORMAL("lognormalny"),
+        PARETO("pareto");
+        
+        private final String name;
+        
+        Kind(String name) {
+            this.name = name;
+        }
+        
+        public String getName() {
+            return name;
+        }
+    }
+    
+    private final Kind kind;
+    private final double first;
+    private final double second;
+    
+    private TimeDistribution(Kind kind, double first, double second) {
+        if (!(first >= 0) || !(second >= 0) || (kind == Kind.UNIFORM && second < first)
+                || ((kind == Kind.EXPONENTIAL || kind == Kind.PARETO) && first == 0)
+                || (kind == Kind.PARETO && second == 0)) {
+            throw new IllegalArgumentException("Nieprawidłowe parametry rozkładu " + kind.getName() + ": "
+                    + first + ", " + second);
+        }
+        this.kind = kind;
+        this.first = first;
+        this.second = second;
+    }
+    
+    public static TimeDistribution constant(long millis) {
+        return new TimeDistribution(Kind.CONSTANT, millis, 0);
+    }
+    
+    public static TimeDistribution uniform(long minMillis, long maxMillis) {
+        return new TimeDistribution(Kind.UNIFORM, minMillis, maxMillis);
+    }
+    
+    public static TimeDistribution exponential(double meanMillis) {
+        return new TimeDistribution(Kind.EXPONENTIAL, meanMillis, 0);
+    }
+    
+    public static TimeDistribution logNormal(double medianMillis, double sigma) {
+        return new TimeDistribution(Kind.LOG_NORMAL, medianMillis, sigma);
+    }
+    
+    public static TimeDistribution pareto(double scaleMillis, double shape) {
+        return new TimeDistribution(Kind.PARETO, scaleMillis, shape);
+    }
+    
+    public static TimeDistribution parse(String spec) {
+        String[] parts = spec.trim().toLowerCase().split(":");
+        try {
+            switch (parts[0]) {
+                case "staly":
+                    return constant(Long.parseLong(parts[1]));
+                case "jednostajny":
+                    return uniform(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                case "wykladniczy":
+                    return exponential(Double.parseDouble(parts[1]));
+                case "lognormalny":
+                    return logNormal(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                case "pareto":
+                    return pareto(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                default:
+                    throw new IllegalArgumentException("Nieznany rozkład czasu: " + spec);
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Nieprawidłowy opis rozkładu czasu: " + spec);
+        }
+    }
+    
+    public long sample(SplittableRandom random) {
+        switch (kind) {
+            case CONSTANT:
+                return (long) first;
+            case UNIFORM:
+                return (long) first + random.nextLong((long) second - (long) first + 1);
+            case EXPONENTIAL:
+                return Math.round(-first * Math.log(1.0 - random.nextDouble()));
+            case LOG_NORMAL:
+                return Math.round(first * Math.exp(second * random.nextGaussian()));
+            default:
+                return Math.round(first / Math.pow(1.0 - random.nextDouble(), 1.0 / second));
+        }
+    }
+    
+    public double getMean() {
+        switch (kind) {
+            case CONSTANT:
+            case EXPONENTIAL:
+                return first;
+            case UNIFORM:
+                return (first + second) / 2;
+            case LOG_NORMAL:
+                return first * Math.exp(second * second / 2);
+            default:
+                return second > 1 ? second * first / (second - 1) : Double.POSITIVE_INFINITY;
+        }
+    }
+    
+    public Kind getKind() {
+        return kind;
+    }
+    
+    @Override
+    public String toString() {
+        switch (kind) {
+            case CONSTANT:
+                return kind.getName() + ":" + (long) first;
+            case UNIFORM:
+                return kind.getName() + ":" + (long) first + ":" + (long) second;
+            case EXPONENTIAL:
+                return kind.getName() + ":" + first;
+            default:
+                return kind.getName() + ":" + first + ":" + second;
+        }
+    }
+}
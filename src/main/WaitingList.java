@@ -0,0 +1,53 @@
+class WaitingList<T extends WaitingList.Node<T>> {
+    
+    static class Node<T extends Node<T>> {
+        T prev;
+        T next;
+        boolean linked = false;
+    }
+    
+    private T head;
+    private T tail;
+    private volatile int size = 0;
+    
+    void addLast(T node) {
+        node.prev = tail;
+        node.next = null;
+        if (tail == null) {
+            head = node;
+        } else {
+            tail.next = node;
+        }
+        tail = node;
+        node.linked = true;
+        size++;
+    }
+    
+    void remove(T node) {
+        if (!node.linked) {
+            return;
+        }
+        if (node.prev == null) {
+            head = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            tail = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+        node.linked = false;
+        size--;
+    }
+    
+    T peekFirst() {
+        return head;
+    }
+    
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,86 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class Workload {
+    
+    private static final long STREAM_GAMMA = 0x9E3779B97F4A7C15L;
+    
+    public static class Source {
+        private final SplittableRandom random;
+        private final TimeDistribution serviceTime;
+        private final TimeDistribution thinkTime;
+        
+        private Source(long seed, TimeDistribution serviceTime, TimeDistribution thinkTime) {
+            this.random = new SplittableRandom(seed);
+            this.serviceTime = serviceTime;
+            this.thinkTime = thinkTime;
+        }
+        
+        public long nextServiceMillis() {
+            return serviceTime.sample(random);
+        }
+        
+        public long nextThinkMillis() {
+            return thinkTime.sample(random);
+        }
+    }
+    
+    private final long seed;
+    private final TimeDistribution readTime;
+    private final TimeDistribution readerThinkTime;
+    private final TimeDistribution writeTime;
+    private final TimeDistribution writerThinkTime;
+    
+    public Workload(long seed, TimeDistribution readTime, TimeDistribution readerThinkTime,
+                    TimeDistribution writeTime, TimeDistribution writerThinkTime) {
+        this.seed = seed;
+        this.readTime = readTime;
+        this.readerThinkTime = readerThinkTime;
+        this.writeTime = writeTime;
+        this.writerThinkTime = writerThinkTime;
+    }
+    
+    public static Workload uniform(long seed, int minTime, int maxTime, int sleepBetweenOperations) {
+        TimeDistribution service = TimeDistribution.uniform(minTime, maxTime);
+        TimeDistribution think = sleepBetweenOperations > 0
+                ? TimeDistribution.uniform(0, sleepBetweenOperations - 1)
+                : TimeDistribution.constant(0);
+        return new Workload(seed, service, think, service, think);
+    }
+    
+    public static long randomSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+    
+    public Source readerSource(String readerName) {
+        return new Source(streamSeed(readerName), readTime, readerThinkTime);
+    }
+    
+    public Source writerSource(String writerName) {
+        return new Source(streamSeed(writerName), writeTime, writerThinkTime);
+    }
+    
+    private long streamSeed(String name) {
+        return seed ^ (name.hashCode() * STREAM_GAMMA);
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    public TimeDistribution getReadTime() {
+        return readTime;
+    }
+    
+    public TimeDistribution getReaderThinkTime() {
+        return readerThinkTime;
+    }
+    
+    public TimeDistribution getWriteTime() {
+        return writeTime;
+    }
+    
+    public TimeDistribution getWriterThinkTime() {
+        return writerThinkTime;
+    }
+}
@@ -0,0 +1,130 @@
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+class WriteCombiner {
+    
+    private static final int PENDING = 0;
+    private static final int CLAIMED = 1;
+    private static final int DONE = 2;
+    private static final int CANCELLED = 3;
+    
+    private static final int MAX_BATCH = 256;
+    
+    private static class Request<T> {
+        final Supplier<T> operation;
+        final Thread submitter = Thread.currentThread();
+        final AtomicInteger status = new AtomicInteger(PENDING);
+        T result;
+        Throwable failure;
+        
+        Request(Supplier<T> operation) {
+            this.operation = operation;
+        }
+        
+        void execute() {
+            try {
+                result = operation.get();
+            } catch (Throwable e) {
+                failure = e;
+            }
+            status.set(DONE);
+            LockSupport.unpark(submitter);
+        }
+        
+        T outcome() {
+            if (failure != null) {
+                Request.<RuntimeException>rethrow(failure);
+            }
+            return result;
+        }
+        
+        @SuppressWarnings("unchecked")
+        private static <E extends Throwable> void rethrow(Throwable failure) throws E {
+            throw (E) failure;
+        }
+    }
+    
+    private final Library library;
+    private final Queue<Request<?>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean combining = new AtomicBoolean(false);
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    
+    WriteCombiner(Library library) {
+        this.library = library;
+    }
+    
+    <T> T submit(String writerName, Supplier<T> operation) throws InterruptedException {
+        Request<T> request = new Request<>(operation);
+        pending.add(request);
+        
+        boolean interrupted = false;
+        while (request.status.get() != DONE) {
+            if (Thread.interrupted()) {
+                if (request.status.compareAndSet(PENDING, CANCELLED)) {
+                    pending.remove(request);
+                    throw new InterruptedException();
+                }
+                interrupted = true;
+            } else if (request.status.get() == PENDING && combining.compareAndSet(false, true)) {
+                try {
+                    combine(writerName);
+                } finally {
+                    combining.set(false);
+                    wakeNext();
+                }
+            } else {
+                LockSupport.park(this);
+            }
+        }
+        
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return request.outcome();
+    }
+    
+    private void combine(String writerName) {
+        Permit permit = library.startWriting(writerName);
+        if (permit == null) {
+            return;
+        }
+        
+        try {
+            int executed = 0;
+            Request<?> request;
+            while (executed < MAX_BATCH && (request = pending.poll()) != null) {
+                if (request.status.compareAndSet(PENDING, CLAIMED)) {
+                    request.execute();
+                    executed++;
+                }
+            }
+            batches.increment();
+            writes.add(executed);
+        } finally {
+            permit.release();
+        }
+    }
+    
+    private void wakeNext() {
+        for (Request<?> request : pending) {
+            if (request.status.get() == PENDING) {
+                LockSupport.unpark(request.submitter);
+                return;
+            }
+        }
+    }
+    
+    long getBatches() {
+        return batches.sum();
+    }
+    
+    long getWrites() {
+        return writes.sum();
+    }
+}
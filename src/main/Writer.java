@@ -1,41 +1,76 @@
-import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
-public class Writer extends Thread {
+public class Writer implements Runnable {
     
     private final Library library;
     private final String writerName;
     private final int minWriteTime;
     private final int maxWriteTime;
     private final int sleepBetweenOperations;
-    private final Random random = new Random();
+    private final boolean combining;
+    private final Workload.Source times;
     private volatile boolean running = true;
+    private volatile Thread worker;
     
     public Writer(Library library, String writerName) {
         this(library, writerName, 1000, 3000, 500);
     }
     
     public Writer(Library library, String writerName, int minWriteTime, int maxWriteTime, int sleepBetweenOperations) {
+        this(library, writerName, minWriteTime, maxWriteTime, sleepBetweenOperations, false);
+    }
+    
+    public Writer(Library library, String writerName, int minWriteTime, int maxWriteTime, int sleepBetweenOperations,
+                  boolean combining) {
+        this(library, writerName, minWriteTime, maxWriteTime, sleepBetweenOperations, combining,
+                Workload.uniform(Workload.randomSeed(), minWriteTime, maxWriteTime, sleepBetweenOperations));
+    }
+    
+    public Writer(Library library, String writerName, Workload workload) {
+        this(library, writerName, workload, false);
+    }
+    
+    public Writer(Library library, String writerName, Workload workload, boolean combining) {
+        this(library, writerName, 0, 0, 0, combining, workload);
+    }
+    
+    private Writer(Library library, String writerName, int minWriteTime, int maxWriteTime, int sleepBetweenOperations,
+                   boolean combining, Workload workload) {
         this.library = library;
         this.writerName = writerName;
         this.minWriteTime = minWriteTime;
         this.maxWriteTime = maxWriteTime;
         this.sleepBetweenOperations = sleepBetweenOperations;
-        setName(writerName);
+        this.combining = combining;
+        this.times = workload.writerSource(writerName);
     }
     
     @Override
     public void run() {
         while (running && !Thread.currentThread().isInterrupted()) {
             try {
-                library.startWriting(writerName);
-                
-                int writeTime = minWriteTime + random.nextInt(maxWriteTime - minWriteTime + 1);
-                Thread.sleep(writeTime);
-                
-                library.stopWriting(writerName);
+                long writeTime = times.nextServiceMillis();
+                if (combining) {
+                    library.submitWrite(writerName, () -> {
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(writeTime));
+                        return null;
+                    });
+                } else {
+                    Permit permit = library.startWriting(writerName);
+                    if (permit == null) {
+                        break;
+                    }
+                    try {
+                        Thread.sleep(writeTime);
+                    } finally {
+                        permit.release();
+                    }
+                }
                 
-                if (sleepBetweenOperations > 0) {
-                    Thread.sleep(random.nextInt(sleepBetweenOperations));
+                long thinkTime = times.nextThinkMillis();
+                if (thinkTime > 0) {
+                    Thread.sleep(thinkTime);
                 }
                 
             } catch (InterruptedException e) {
@@ -45,9 +80,34 @@ public class Writer extends Thread {
         }
     }
     
+    public Thread start() {
+        return start(Thread.ofPlatform());
+    }
+    
+    public Thread startVirtual() {
+        return start(Thread.ofVirtual());
+    }
+    
+    public synchronized Thread start(Thread.Builder builder) {
+        if (worker != null) {
+            throw new IllegalStateException("Pisarz " + writerName + " został już uruchomiony");
+        }
+        Thread thread = builder.name(writerName).unstarted(this);
+        worker = thread;
+        thread.start();
+        return thread;
+    }
+    
     public void stopRunning() {
         running = false;
-        this.interrupt();
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+    
+    public Thread getWorker() {
+        return worker;
     }
     
     public void setRunning(boolean running) {
@@ -77,4 +137,8 @@ public class Writer extends Thread {
     public int getSleepBetweenOperations() {
         return sleepBetweenOperations;
     }
+    
+    public boolean isCombining() {
+        return combining;
+    }
 }
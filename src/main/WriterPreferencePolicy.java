@@ -0,0 +1,17 @@
+public class WriterPreferencePolicy implements AdmissionPolicy {
+    
+    @Override
+    public boolean canReaderEnter(AdmissionView view, long ticket) {
+        return view.getOldestWriterTicket() == NONE_WAITING;
+    }
+    
+    @Override
+    public boolean canWriterEnter(AdmissionView view, long ticket) {
+        return true;
+    }
+    
+    @Override
+    public String getName() {
+        return "pisarze";
+    }
+}
@@ -0,0 +1,126 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionPolicyTest {
+    
+    private static Library libraryWith(AdmissionPolicy policy) {
+        return new Library(EventLog.silent(), false, 5, policy);
+    }
+    
+    private static Permit await(CompletableFuture<Permit> future) throws Exception {
+        return future.get(1, TimeUnit.SECONDS);
+    }
+    
+    @Test
+    @DisplayName("Domyślną polityką powinna być kolejka FIFO")
+    void defaultPolicyShouldBeFifo() {
+        assertTrue(new Library(false).getAdmissionPolicy() instanceof FifoPolicy);
+        assertEquals("fifo", AdmissionPolicy.byName("FIFO").getName());
+        assertThrows(IllegalArgumentException.class, () -> AdmissionPolicy.byName("losowo"));
+    }
+    
+    @Test
+    @DisplayName("Preferencja czytelników powinna wpuszczać czytelników przed czekającym pisarzem")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void readerPreferenceShouldLetReadersPassWaitingWriter() throws Exception {
+        Library library = libraryWith(new ReaderPreferencePolicy());
+        Permit first = library.startReading("Czytelnik-1");
+        CompletableFuture<Permit> writer = library.acquireWriteAsync("Pisarz-1");
+        CompletableFuture<Permit> second = library.acquireReadAsync("Czytelnik-2");
+        
+        Permit secondPermit = await(second);
+        assertEquals(2, library.getActiveReaders());
+        assertFalse(writer.isDone());
+        
+        first.release();
+        secondPermit.release();
+        await(writer).release();
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Preferencja pisarzy powinna wpuszczać pisarzy przed starszymi czytelnikami")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void writerPreferenceShouldLetWritersPassWaitingReaders() throws Exception {
+        Library library = libraryWith(new WriterPreferencePolicy());
+        Permit first = library.startReading("Czytelnik-1");
+        CompletableFuture<Permit> writer1 = library.acquireWriteAsync("Pisarz-1");
+        CompletableFuture<Permit> reader = library.acquireReadAsync("Czytelnik-2");
+        CompletableFuture<Permit> writer2 = library.acquireWriteAsync("Pisarz-2");
+        
+        first.release();
+        await(writer1).release();
+        
+        Permit second = await(writer2);
+        assertEquals("Pisarz-2", library.getWriterInLibrary());
+        assertFalse(reader.isDone());
+        
+        second.release();
+        await(reader).release();
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Polityka faz powinna przeplatać fazę czytelników i pisarza")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void phaseFairShouldAlternatePhases() throws Exception {
+        Library library = libraryWith(new PhaseFairPolicy());
+        Permit writer1 = library.startWriting("Pisarz-1");
+        CompletableFuture<Permit> writer2 = library.acquireWriteAsync("Pisarz-2");
+        CompletableFuture<Permit> reader1 = library.acquireReadAsync("Czytelnik-1");
+        
+        writer1.release();
+        Permit reader1Permit = await(reader1);
+        assertFalse(writer2.isDone());
+        
+        CompletableFuture<Permit> reader2 = library.acquireReadAsync("Czytelnik-2");
+        assertFalse(reader2.isDone());
+        
+        reader1Permit.release();
+        Permit writer2Permit = await(writer2);
+        assertFalse(reader2.isDone());
+        
+        writer2Permit.release();
+        await(reader2).release();
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Każda polityka powinna zachować wyłączność pisarza i limit czytelników")
+    @Timeout(value = 20, unit = TimeUnit.SECONDS)
+    void everyPolicyShouldKeepInvariants() throws InterruptedException {
+        for (String name : new String[] {"fifo", "czytelnicy", "pisarze", "fazy"}) {
+            Library library = libraryWith(AdmissionPolicy.byName(name));
+            boolean[] violation = new boolean[1];
+            Thread[] threads = new Thread[8];
+            for (int t = 0; t < threads.length; t++) {
+                final boolean writer = t < 2;
+                final String who = (writer ? "Pisarz-" : "Czytelnik-") + t;
+                threads[t] = new Thread(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        try (Permit permit = writer ? library.startWriting(who) : library.startReading(who)) {
+                            int readers = library.getActiveReaders();
+                            int writers = library.getActiveWriters();
+                            if (readers > 5 || writers > 1 || (writers == 1 && readers > 0)) {
+                                violation[0] = true;
+                            }
+                        }
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertFalse(violation[0], name);
+            assertTrue(library.isEmpty(), name);
+            assertEquals(0, library.getQueueSize(), name);
+        }
+    }
+}
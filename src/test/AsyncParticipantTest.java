@@ -0,0 +1,97 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncParticipantTest {
+    
+    private Library library;
+    private ScheduledExecutorService scheduler;
+    
+    @BeforeEach
+    void setUp() {
+        library = new Library(false);
+        scheduler = Executors.newScheduledThreadPool(2);
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        scheduler.shutdownNow();
+        scheduler.awaitTermination(1, TimeUnit.SECONDS);
+    }
+    
+    @Test
+    @DisplayName("Konstruktor domyślny powinien ustawić prawidłowe wartości")
+    void defaultConstructorShouldSetCorrectValues() {
+        AsyncParticipant participant = new AsyncParticipant(library, "Czytelnik-1", false, scheduler);
+        
+        assertEquals("Czytelnik-1", participant.getName());
+        assertEquals(library, participant.getLibrary());
+        assertFalse(participant.isWriter());
+        assertFalse(participant.isRunning());
+        assertEquals(0, participant.getVisits());
+    }
+    
+    @Test
+    @DisplayName("Uczestnik powinien cyklicznie odwiedzać czytelnię")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void participantShouldVisitRepeatedly() throws InterruptedException {
+        AsyncParticipant participant = new AsyncParticipant(library, "Czytelnik-1", false, 5, 10, 5, scheduler);
+        
+        participant.start();
+        assertTrue(participant.isRunning());
+        
+        while (participant.getVisits() < 3) {
+            Thread.sleep(10);
+        }
+        
+        participant.stopRunning();
+        assertFalse(participant.isRunning());
+        waitUntilEmpty();
+    }
+    
+    @Test
+    @DisplayName("Setki uczestników powinny działać na dwóch wątkach")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void hundredsOfParticipantsShouldShareTwoThreads() throws InterruptedException {
+        List<AsyncParticipant> participants = new ArrayList<>();
+        for (int i = 1; i <= 300; i++) {
+            boolean writer = i % 30 == 0;
+            String name = (writer ? "Pisarz-" : "Czytelnik-") + i;
+            participants.add(new AsyncParticipant(library, name, writer, 1, 2, 2, scheduler));
+        }
+        
+        for (AsyncParticipant participant : participants) {
+            participant.start();
+        }
+        
+        Thread.sleep(1500);
+        
+        for (AsyncParticipant participant : participants) {
+            participant.stopRunning();
+        }
+        waitUntilEmpty();
+        
+        int total = 0;
+        for (AsyncParticipant participant : participants) {
+            total += participant.getVisits();
+        }
+        assertTrue(total >= 300, "Uczestnicy powinni odwiedzić czytelnię co najmniej 300 razy, odwiedzin: " + total);
+        assertEquals(0, library.getQueueSize());
+    }
+    
+    private void waitUntilEmpty() throws InterruptedException {
+        while (!library.isEmpty() || library.getQueueSize() > 0) {
+            Thread.sleep(10);
+        }
+    }
+}
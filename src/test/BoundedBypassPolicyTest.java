@@ -0,0 +1,152 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedBypassPolicyTest {
+    
+    private static class StubView implements AdmissionView {
+        int activeReaders = 1;
+        long oldestReaderTicket = AdmissionPolicy.NONE_WAITING;
+        long oldestWriterTicket = AdmissionPolicy.NONE_WAITING;
+        long now = 1_000;
+        long readerExpected = 0;
+        long drain = Long.MIN_VALUE;
+        
+        @Override
+        public int getActiveReaders() {
+            return activeReaders;
+        }
+        
+        @Override
+        public boolean isWriterActive() {
+            return false;
+        }
+        
+        @Override
+        public int getMaxReaders() {
+            return 5;
+        }
+        
+        @Override
+        public long getOldestReaderTicket() {
+            return oldestReaderTicket;
+        }
+        
+        @Override
+        public long getOldestWriterTicket() {
+            return oldestWriterTicket;
+        }
+        
+        @Override
+        public long getNextTicket() {
+            return 100;
+        }
+        
+        @Override
+        public long getNanoTime() {
+            return now;
+        }
+        
+        @Override
+        public long getOldestReaderExpectedNanos() {
+            return readerExpected;
+        }
+        
+        @Override
+        public long getReadGroupDrainNanos() {
+            return drain;
+        }
+    }
+    
+    @Test
+    @DisplayName("Czytelnik kończący przed opróżnieniem grupy powinien wyprzedzić pisarza")
+    void shortReaderShouldBypassWaitingWriter() {
+        BoundedBypassPolicy policy = new BoundedBypassPolicy(2);
+        StubView view = new StubView();
+        view.oldestWriterTicket = 3;
+        view.oldestReaderTicket = 4;
+        view.drain = 2_000;
+        
+        view.readerExpected = 500;
+        assertTrue(policy.canReaderEnter(view, 4));
+        
+        view.readerExpected = 5_000;
+        assertFalse(policy.canReaderEnter(view, 4));
+        
+        view.readerExpected = 0;
+        assertFalse(policy.canReaderEnter(view, 4));
+    }
+    
+    @Test
+    @DisplayName("Liczba wyprzedzeń jednego pisarza powinna być ograniczona")
+    void bypassCountShouldBeBounded() {
+        BoundedBypassPolicy policy = new BoundedBypassPolicy(2);
+        StubView view = new StubView();
+        view.oldestWriterTicket = 3;
+        view.drain = 2_000;
+        view.readerExpected = 500;
+        
+        for (long ticket = 4; ticket < 6; ticket++) {
+            assertTrue(policy.canReaderEnter(view, ticket));
+            policy.onAdmit(view, false, ticket);
+        }
+        assertFalse(policy.canReaderEnter(view, 6));
+        
+        view.oldestWriterTicket = 7;
+        assertTrue(policy.canReaderEnter(view, 8));
+    }
+    
+    @Test
+    @DisplayName("Bez grupy czytelników w środku nie powinno być wyprzedzania")
+    void noBypassWithoutActiveGroup() {
+        BoundedBypassPolicy policy = new BoundedBypassPolicy(2);
+        StubView view = new StubView();
+        view.oldestWriterTicket = 3;
+        view.drain = 2_000;
+        view.readerExpected = 500;
+        view.activeReaders = 0;
+        
+        assertFalse(policy.canReaderEnter(view, 4));
+        assertTrue(policy.canReaderEnter(view, 2));
+        assertTrue(policy.canWriterEnter(view, 3));
+        assertThrows(IllegalArgumentException.class, () -> new BoundedBypassPolicy(-1));
+    }
+    
+    @Test
+    @DisplayName("Krótki czytelnik powinien dołączyć do grupy przed czekającym pisarzem")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void libraryShouldAdmitShortReaderAheadOfWriter() throws Exception {
+        Library library = new Library(EventLog.silent(), false, 5, new BoundedBypassPolicy(1));
+        Permit first = library.startReadingFor("Czytelnik-1", 10, TimeUnit.SECONDS);
+        CompletableFuture<Permit> writer = library.acquireWriteAsync("Pisarz-1");
+        
+        Permit shortReader = library.startReadingFor("Czytelnik-2", 10, TimeUnit.MILLISECONDS);
+        assertEquals(2, library.getActiveReaders());
+        assertFalse(writer.isDone());
+        
+        CompletableFuture<Permit> longReader = CompletableFuture.supplyAsync(
+                () -> library.startReadingFor("Czytelnik-3", 1, TimeUnit.MINUTES));
+        CompletableFuture<Permit> secondShort = CompletableFuture.supplyAsync(
+                () -> library.startReadingFor("Czytelnik-4", 10, TimeUnit.MILLISECONDS));
+        while (library.getQueueSize() < 3) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, library.getActiveReaders());
+        
+        shortReader.release();
+        first.release();
+        
+        Permit writerPermit = writer.get(1, TimeUnit.SECONDS);
+        assertFalse(longReader.isDone());
+        writerPermit.release();
+        
+        longReader.get(1, TimeUnit.SECONDS).release();
+        secondShort.get(1, TimeUnit.SECONDS).release();
+        assertTrue(library.isEmpty());
+    }
+}
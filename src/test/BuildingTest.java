@@ -0,0 +1,187 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BuildingTest {
+    
+    private Building building;
+    
+    @BeforeEach
+    void setUp() {
+        building = new Building(2, 2, 5);
+    }
+    
+    private static Building.Grant await(CompletableFuture<Building.Grant> future) throws Exception {
+        return future.get(1, TimeUnit.SECONDS);
+    }
+    
+    private static void awaitQueued(IntentionLock lock, int size) throws InterruptedException {
+        while (lock.getQueueSize() < size) {
+            Thread.sleep(10);
+        }
+    }
+    
+    @Test
+    @DisplayName("Pisarz półki powinien trzymać IX na pokoju i budynku")
+    void shelfWriterShouldHoldIntentionLocks() {
+        Building.Grant grant = building.writeShelf(0, 1, "Pisarz-1");
+        
+        assertEquals(Arrays.asList(LockMode.IX, LockMode.IX), grant.getModes());
+        assertEquals(1, building.getBuildingLock().getHolders(LockMode.IX));
+        assertEquals(1, building.getRoomLock(0).getHolders(LockMode.IX));
+        assertEquals("Pisarz-1", building.getShelf(0, 1).getWriterInLibrary());
+        
+        grant.release();
+        assertTrue(building.getBuildingLock().isFree());
+        assertTrue(building.getRoomLock(0).isFree());
+        assertTrue(building.getShelf(0, 1).isEmpty());
+        assertThrows(IllegalStateException.class, grant::release);
+    }
+    
+    @Test
+    @DisplayName("Operacje w różnych poddrzewach powinny przebiegać równolegle")
+    void operationsInDifferentSubtreesShouldProceedInParallel() {
+        Building.Grant first = building.writeShelf(0, 0, "Pisarz-1");
+        Building.Grant second = building.writeShelf(0, 1, "Pisarz-2");
+        Building.Grant roomWriter = building.writeRoom(1, "Pisarz-3");
+        
+        assertEquals(2, building.getRoomLock(0).getHolders(LockMode.IX));
+        assertEquals(1, building.getRoomLock(1).getHolders(LockMode.X));
+        assertEquals(3, building.getBuildingLock().getHolders(LockMode.IX));
+        
+        first.release();
+        second.release();
+        roomWriter.release();
+        assertTrue(building.getBuildingLock().isFree());
+    }
+    
+    @Test
+    @DisplayName("Czytelnik całego pokoju powinien czekać na pisarza półki w tym pokoju")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void roomReaderShouldWaitForShelfWriter() throws Exception {
+        Building.Grant shelfWriter = building.writeShelf(0, 1, "Pisarz-1");
+        CompletableFuture<Building.Grant> roomReader = CompletableFuture.supplyAsync(
+                () -> building.readRoom(0, "Czytelnik-1"));
+        awaitQueued(building.getRoomLock(0), 1);
+        
+        Building.Grant otherRoom = building.readRoom(1, "Czytelnik-2");
+        assertEquals(Arrays.asList(LockMode.IS, LockMode.S), otherRoom.getModes());
+        otherRoom.release();
+        assertFalse(roomReader.isDone());
+        
+        shelfWriter.release();
+        Building.Grant grant = await(roomReader);
+        assertEquals(1, building.getRoomLock(0).getHolders(LockMode.S));
+        
+        grant.release();
+        assertTrue(building.getBuildingLock().isFree());
+    }
+    
+    @Test
+    @DisplayName("SIX powinien wpuszczać czytelników półek i blokować innych pisarzy")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void sixShouldAdmitShelfReadersOnly() throws Exception {
+        Building.Grant update = building.readRoomWriteShelf(0, 0, "Pisarz-1");
+        assertEquals(Arrays.asList(LockMode.IX, LockMode.SIX), update.getModes());
+        
+        Building.Grant shelfReader = building.readShelf(0, 1, "Czytelnik-1");
+        shelfReader.release();
+        
+        CompletableFuture<Building.Grant> shelfWriter = CompletableFuture.supplyAsync(
+                () -> building.writeShelf(0, 1, "Pisarz-2"));
+        awaitQueued(building.getRoomLock(0), 1);
+        assertFalse(shelfWriter.isDone());
+        
+        update.release();
+        await(shelfWriter).release();
+        assertTrue(building.getRoomLock(0).isFree());
+    }
+    
+    @Test
+    @DisplayName("Pisarz całego budynku powinien wykluczać wszystkie inne operacje")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void buildingWriterShouldExcludeEverything() throws Exception {
+        Building.Grant reader = building.readShelf(1, 1, "Czytelnik-1");
+        CompletableFuture<Building.Grant> writer = CompletableFuture.supplyAsync(
+                () -> building.writeBuilding("Pisarz-1"));
+        awaitQueued(building.getBuildingLock(), 1);
+        CompletableFuture<Building.Grant> later = CompletableFuture.supplyAsync(
+                () -> building.readShelf(0, 0, "Czytelnik-2"));
+        awaitQueued(building.getBuildingLock(), 2);
+        
+        reader.release();
+        Building.Grant writerGrant = await(writer);
+        assertFalse(later.isDone());
+        
+        writerGrant.release();
+        await(later).release();
+        assertTrue(building.getBuildingLock().isFree());
+    }
+    
+    @Test
+    @DisplayName("Współbieżne operacje na różnych poziomach powinny zachować wyłączność")
+    @Timeout(value = 20, unit = TimeUnit.SECONDS)
+    void concurrentOperationsShouldKeepExclusion() throws InterruptedException {
+        int[][] shelfValues = new int[2][2];
+        AtomicBoolean violation = new AtomicBoolean(false);
+        Thread[] threads = new Thread[6];
+        for (int t = 0; t < threads.length; t++) {
+            final int id = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 300; i++) {
+                    int room = (i + id) % 2;
+                    int shelf = (i / 2 + id) % 2;
+                    if (id % 3 == 0) {
+                        try (Building.Grant grant = building.writeShelf(room, shelf, "Pisarz-" + id)) {
+                            shelfValues[room][shelf]++;
+                            shelfValues[room][shelf]++;
+                        }
+                    } else if (id % 3 == 1) {
+                        try (Building.Grant grant = building.readRoom(room, "Czytelnik-" + id)) {
+                            for (int value : shelfValues[room]) {
+                                if (value % 2 != 0) {
+                                    violation.set(true);
+                                }
+                            }
+                        }
+                    } else {
+                        try (Building.Grant grant = building.readBuilding("Czytelnik-" + id)) {
+                            for (int[] values : shelfValues) {
+                                for (int value : values) {
+                                    if (value % 2 != 0) {
+                                        violation.set(true);
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertFalse(violation.get());
+        assertTrue(building.getBuildingLock().isFree());
+        assertEquals(0, building.getBuildingLock().getQueueSize());
+    }
+    
+    @Test
+    @DisplayName("Nieprawidłowy układ lub indeks powinien zostać odrzucony")
+    void invalidLayoutShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new Building(0, 1, 5));
+        assertThrows(IllegalArgumentException.class, () -> building.readShelf(2, 0, "Czytelnik-1"));
+        assertThrows(IllegalArgumentException.class, () -> building.writeShelf(0, -1, "Pisarz-1"));
+        assertTrue(building.getBuildingLock().isFree());
+    }
+}
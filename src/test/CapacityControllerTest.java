@@ -0,0 +1,168 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CapacityControllerTest {
+    
+    private Library library;
+    
+    @BeforeEach
+    void setUp() {
+        library = new Library(false);
+    }
+    
+    @Test
+    @DisplayName("AIMD powinien zwiększać pojemność o 1 gdy ktoś czeka i opóźnienie jest w normie")
+    void aimdShouldIncreaseAdditivelyWhenQueued() {
+        CapacityController controller = new CapacityController(library, CapacityController.Strategy.AIMD, 1, 20);
+        
+        controller.update(1_000_000, 1000, 3);
+        assertEquals(6, library.getMaxReaders());
+        
+        controller.update(1_000_000, 1000, 3);
+        assertEquals(7, library.getMaxReaders());
+        
+        controller.update(1_000_000, 1000, 0);
+        assertEquals(7, library.getMaxReaders());
+    }
+    
+    @Test
+    @DisplayName("AIMD powinien zmniejszać pojemność multiplikatywnie przy wzroście opóźnienia")
+    void aimdShouldDecreaseMultiplicativelyWhenLatencyGrows() {
+        library.setMaxReaders(10);
+        CapacityController controller = new CapacityController(library, CapacityController.Strategy.AIMD, 2, 20);
+        
+        controller.update(1_000_000, 1000, 0);
+        controller.update(5_000_000, 1000, 0);
+        
+        assertEquals(9, library.getMaxReaders());
+    }
+    
+    @Test
+    @DisplayName("AIMD powinien zmniejszyć pojemność gdy przepustowość spada mimo kolejki")
+    void aimdShouldBackOffWhenThroughputDrops() {
+        library.setMaxReaders(10);
+        CapacityController controller = new CapacityController(library, CapacityController.Strategy.AIMD, 2, 20);
+        
+        controller.update(1_000_000, 1000, 3);
+        assertEquals(11, library.getMaxReaders());
+        
+        controller.update(1_000_000, 600, 3);
+        assertEquals(9, library.getMaxReaders());
+        
+        controller.update(1_000_000, 100, 0);
+        assertEquals(9, library.getMaxReaders());
+    }
+    
+    @Test
+    @DisplayName("AIMD powinien zmniejszać pojemność o dziesięć procent i nie schodzić poniżej minimum")
+    void aimdShouldBackOffByRatioDownToMinimum() {
+        library.setMaxReaders(64);
+        CapacityController controller = new CapacityController(library, CapacityController.Strategy.AIMD, 2, 64);
+        
+        controller.update(1_000_000, 1000, 3);
+        assertEquals(64, library.getMaxReaders());
+        
+        controller.update(1_000_000, 600, 3);
+        assertEquals(57, library.getMaxReaders());
+        
+        controller.update(1_000_000, 600, 3);
+        assertEquals(51, library.getMaxReaders());
+        
+        library.setMaxReaders(3);
+        controller.update(1_000_000, 100, 3);
+        assertEquals(2, library.getMaxReaders());
+        controller.update(1_000_000, 100, 3);
+        assertEquals(2, library.getMaxReaders());
+    }
+    
+    @Test
+    @DisplayName("Gradient powinien uwzględniać spadek przepustowości przy czekających")
+    void gradientShouldFollowThroughputDrop() {
+        library.setMaxReaders(16);
+        CapacityController steady = new CapacityController(library, CapacityController.Strategy.GRADIENT, 1, 32);
+        steady.update(1_000_000, 1000, 1);
+        for (int i = 0; i < 5; i++) {
+            steady.update(1_000_000, 1000, 1);
+        }
+        int withSteadyThroughput = library.getMaxReaders();
+        
+        library.setMaxReaders(16);
+        CapacityController dropping = new CapacityController(library, CapacityController.Strategy.GRADIENT, 1, 32);
+        dropping.update(1_000_000, 1000, 1);
+        for (int i = 0; i < 5; i++) {
+            dropping.update(1_000_000, 500, 1);
+        }
+        
+        assertTrue(withSteadyThroughput >= 16);
+        assertTrue(library.getMaxReaders() < 16);
+    }
+    
+    @Test
+    @DisplayName("Gradient powinien zbliżać pojemność do wartości wynikającej z opóźnienia")
+    void gradientShouldConvergeTowardsLatencyRatio() {
+        library.setMaxReaders(16);
+        CapacityController controller = new CapacityController(library, CapacityController.Strategy.GRADIENT, 1, 32);
+        
+        controller.update(1_000_000, 1000, 0);
+        for (int i = 0; i < 50; i++) {
+            controller.update(2_000_000, 1000, 0);
+        }
+        
+        assertTrue(library.getMaxReaders() < 16);
+        assertTrue(library.getMaxReaders() >= 1);
+    }
+    
+    @Test
+    @DisplayName("Kontroler nie powinien wychodzić poza zadany zakres")
+    void controllerShouldRespectBounds() {
+        CapacityController controller = new CapacityController(library, CapacityController.Strategy.AIMD, 4, 6);
+        
+        for (int i = 0; i < 10; i++) {
+            controller.update(1_000_000, 1000, 10);
+        }
+        assertEquals(6, library.getMaxReaders());
+        
+        for (int i = 0; i < 10; i++) {
+            controller.update(1_000_000_000, 1000, 0);
+        }
+        assertEquals(4, library.getMaxReaders());
+    }
+    
+    @Test
+    @DisplayName("Nieprawidłowy zakres powinien zostać odrzucony")
+    void invalidRangeShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CapacityController(library, CapacityController.Strategy.AIMD, 0, 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CapacityController(library, CapacityController.Strategy.GRADIENT, 5, 4));
+    }
+    
+    @Test
+    @DisplayName("Kontroler uruchomiony w harmonogramie powinien próbkować czytelnię")
+    void scheduledControllerShouldSampleLibrary() throws InterruptedException {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        CapacityController controller = new CapacityController(library, CapacityController.Strategy.AIMD, 1, 10);
+        ScheduledFuture<?> task = controller.start(scheduler, 20, TimeUnit.MILLISECONDS);
+        
+        for (int i = 0; i < 20; i++) {
+            library.startReading("Czytelnik-1").release();
+            Thread.sleep(5);
+        }
+        
+        task.cancel(false);
+        scheduler.shutdown();
+        assertTrue(scheduler.awaitTermination(1, TimeUnit.SECONDS));
+        
+        assertEquals(20, library.getCompletedReads());
+        assertTrue(library.getTotalReadNanos() > 0);
+        assertTrue(library.getMaxReaders() >= 1 && library.getMaxReaders() <= 10);
+    }
+}
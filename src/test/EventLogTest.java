@@ -0,0 +1,258 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLogTest {
+    
+    private ByteArrayOutputStream output = new ByteArrayOutputStream();
+    
+    private EventLog log(EventLog.Level level, int sampleEvery, int capacity) {
+        return new EventLog(new PrintStream(output, true, StandardCharsets.UTF_8), level, sampleEvery, capacity);
+    }
+    
+    private String text() {
+        return output.toString(StandardCharsets.UTF_8);
+    }
+    
+    @Test
+    @DisplayName("Pełny wydruk powinien odtworzyć stan czytelni i kolejki")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void statusLevelShouldReplayState() throws Exception {
+        EventLog events = log(EventLog.Level.STATUS, 1, 64);
+        Library library = new Library(events, false, 5);
+        
+        Permit reader = library.startReading("Czytelnik-1");
+        Thread writer = new Thread(() -> library.startWriting("Pisarz-1").release());
+        writer.start();
+        while (library.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        reader.release();
+        writer.join(1000);
+        events.close();
+        
+        String text = text();
+        assertTrue(text.contains("ZDARZENIE: Czytelnik-1 (czytelnik) WCHODZI do czytelni"));
+        assertTrue(text.contains("ZDARZENIE: Pisarz-1 (pisarz) chce wejść do czytelni"));
+        assertTrue(text.contains("Czytelnicy (1): [Czytelnik-1]"));
+        assertTrue(text.contains("Kolejność: [Pisarz-1(P)]"));
+        assertTrue(text.contains("Pisarze (1): [Pisarz-1]"));
+        assertTrue(text.contains("ZDARZENIE: Pisarz-1 (pisarz) WYCHODZI z czytelni"));
+        assertEquals(5, events.getPublished());
+        assertEquals(5, events.getConsumed());
+    }
+    
+    @Test
+    @DisplayName("Poziom zdarzeń powinien wypisywać jedną linię na zdarzenie z licznikami")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void eventsLevelShouldPrintCompactLines() {
+        EventLog events = log(EventLog.Level.EVENTS, 1, 64);
+        Library library = new Library(events, false, 5);
+        
+        library.startReading("Czytelnik-1").release();
+        library.setMaxReaders(3);
+        events.close();
+        
+        String[] lines = text().split("\\R");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("Czytelnik-1 (czytelnik) WCHODZI do czytelni | czytelnicy=1 pisarze=0 kolejka=0"));
+        assertTrue(lines[1].contains("Czytelnik-1 (czytelnik) WYCHODZI z czytelni"));
+        assertTrue(lines[2].contains("Zmiana pojemności czytelni na 3"));
+    }
+    
+    @Test
+    @DisplayName("Próbkowanie powinno wypisywać co n-te zdarzenie")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void samplingShouldSkipEvents() {
+        EventLog events = log(EventLog.Level.EVENTS, 4, 64);
+        Library library = new Library(events, false, 5);
+        
+        for (int i = 0; i < 8; i++) {
+            library.startWriting("Pisarz-" + i).release();
+        }
+        events.close();
+        
+        assertEquals(16, events.getConsumed());
+        assertEquals(4, text().split("\\R").length);
+    }
+    
+    @Test
+    @DisplayName("Pełny bufor powinien pomijać i liczyć zdarzenia zamiast blokować")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void fullBufferShouldDropInsteadOfBlocking() throws InterruptedException {
+        CountDownLatch printing = new CountDownLatch(1);
+        CountDownLatch gate = new CountDownLatch(1);
+        OutputStream blocked = new OutputStream() {
+            @Override
+            public void write(int b) {
+                printing.countDown();
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                output.write(b);
+            }
+        };
+        EventLog events = new EventLog(new PrintStream(blocked, false, StandardCharsets.UTF_8),
+                EventLog.Level.EVENTS, 1, 2);
+        Library library = new Library(events, false, 5);
+        
+        library.startReading("Czytelnik-0").release();
+        printing.await();
+        for (int i = 1; i <= 50; i++) {
+            library.startReading("Czytelnik-" + i).release();
+        }
+        
+        assertTrue(events.getDropped() > 0);
+        assertEquals(102, events.getPublished() + events.getDropped());
+        
+        gate.countDown();
+        events.close();
+        assertEquals(events.getPublished(), events.getConsumed());
+        assertTrue(text().contains("pełny bufor dziennika"));
+    }
+    
+    @Test
+    @DisplayName("Po przepełnieniu bufora wydruk stanu powinien zgadzać się z czytelnią")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void statusAfterOverflowShouldMatchLibrary() throws InterruptedException {
+        CountDownLatch printing = new CountDownLatch(1);
+        CountDownLatch gate = new CountDownLatch(1);
+        OutputStream blocked = new OutputStream() {
+            @Override
+            public void write(int b) {
+                printing.countDown();
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                output.write(b);
+            }
+        };
+        EventLog events = new EventLog(new PrintStream(blocked, false, StandardCharsets.UTF_8),
+                EventLog.Level.STATUS, 1, 2);
+        Library library = new Library(events, false, 2);
+        
+        Permit first = library.startReading("Czytelnik-1");
+        printing.await();
+        Permit second = library.startReading("Czytelnik-2");
+        List<Thread> waiting = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            String name = "Pisarz-" + i;
+            Thread writer = new Thread(() -> library.startWriting(name).release());
+            writer.start();
+            waiting.add(writer);
+        }
+        while (library.getQueueSize() < 10) {
+            Thread.sleep(10);
+        }
+        first.release();
+        second.release();
+        for (Thread writer : waiting) {
+            writer.join(1000);
+        }
+        assertTrue(events.getDropped() > 0);
+        
+        gate.countDown();
+        while (events.getConsumed() < events.getPublished()) {
+            Thread.sleep(10);
+        }
+        library.setMaxReaders(3);
+        events.close();
+        
+        String text = text();
+        assertTrue(text.contains("pełny bufor dziennika"));
+        String last = text.substring(text.lastIndexOf("ZDARZENIE: Zmiana pojemności czytelni na 3"));
+        assertTrue(last.contains("W CZYTELNI:\n  Pisarze (0): []\n  Czytelnicy (0): []\n"));
+        assertTrue(last.contains("W KOLEJCE (0):\n  Pisarze (0): []\n  Czytelnicy (0): []\n  Kolejność: []\n"));
+    }
+    
+    @Test
+    @DisplayName("Zamknięcie czytelni powinno zakończyć wątek jej dziennika")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void closingLibrariesShouldStopLogThreads() throws InterruptedException {
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+        try {
+            List<Library> libraries = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                Library library = new Library();
+                library.startReading("Czytelnik-1").release();
+                libraries.add(library);
+            }
+            for (Library library : libraries) {
+                library.close();
+                assertTrue(library.getEventLog().isClosed());
+            }
+        } finally {
+            System.setOut(originalOut);
+        }
+        
+        while (liveLogThreads() > 0) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, liveLogThreads());
+        assertFalse(EventLog.silent().isClosed());
+    }
+    
+    @Test
+    @DisplayName("Bezczynny wątek dziennika powinien się zakończyć i wrócić przy kolejnym zdarzeniu")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void idleConsumerShouldRetireAndRestart() throws InterruptedException {
+        EventLog events = log(EventLog.Level.EVENTS, 1, 64);
+        Library library = new Library(events, false, 5);
+        
+        library.startReading("Czytelnik-1").release();
+        while (liveLogThreads() > 0) {
+            Thread.sleep(50);
+        }
+        assertEquals(2, events.getConsumed());
+        
+        library.startWriting("Pisarz-1").release();
+        events.close();
+        
+        assertEquals(4, events.getConsumed());
+        assertEquals(4, text().split("\\R").length);
+    }
+    
+    private static long liveLogThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("event-log") && thread.isAlive())
+                .count();
+    }
+    
+    @Test
+    @DisplayName("Tryb cichy nie powinien niczego publikować")
+    void silentModeShouldPublishNothing() {
+        EventLog events = log(EventLog.Level.SILENT, 1, 64);
+        Library library = new Library(events, false, 5);
+        
+        library.startReading("Czytelnik-1").release();
+        events.close();
+        
+        assertTrue(events.isSilent());
+        assertEquals(0, events.getPublished());
+        assertEquals("", text());
+        assertTrue(new Library(false).getEventLog().isSilent());
+    }
+    
+    @Test
+    @DisplayName("Nieprawidłowe parametry dziennika powinny zostać odrzucone")
+    void invalidParametersShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> log(EventLog.Level.EVENTS, 0, 64));
+        assertThrows(IllegalArgumentException.class, () -> log(EventLog.Level.EVENTS, 1, 100));
+    }
+}
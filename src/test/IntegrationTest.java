@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Timeout;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -46,19 +48,19 @@ class IntegrationTest {
         }
         
         for (Reader reader : readers) {
-            reader.join(5000);
+            reader.getWorker().join(5000);
         }
         for (Writer writer : writers) {
-            writer.join(5000);
+            writer.getWorker().join(5000);
         }
         
         Thread.sleep(500);
         
         for (Reader reader : readers) {
-            assertFalse(reader.isAlive(), "Czytelnik " + reader.getReaderName() + " powinien się zakończyć");
+            assertFalse(reader.getWorker().isAlive(), "Czytelnik " + reader.getReaderName() + " powinien się zakończyć");
         }
         for (Writer writer : writers) {
-            assertFalse(writer.isAlive(), "Pisarz " + writer.getWriterName() + " powinien się zakończyć");
+            assertFalse(writer.getWorker().isAlive(), "Pisarz " + writer.getWriterName() + " powinien się zakończyć");
         }
     }
     
@@ -82,14 +84,14 @@ class IntegrationTest {
                 return;
             }
             while (running.get() && !Thread.currentThread().isInterrupted()) {
-                library.startReading("Czytelnik-1");
+                Permit permit = library.startReading("Czytelnik-1");
                 reader1Count.incrementAndGet();
                 try {
                     Thread.sleep(30);
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                 }
-                library.stopReading("Czytelnik-1");
+                permit.release();
                 try {
                     Thread.sleep(10);
                 } catch (InterruptedException e) {
@@ -105,14 +107,14 @@ class IntegrationTest {
                 return;
             }
             while (running.get() && !Thread.currentThread().isInterrupted()) {
-                library.startReading("Czytelnik-2");
+                Permit permit = library.startReading("Czytelnik-2");
                 reader2Count.incrementAndGet();
                 try {
                     Thread.sleep(30);
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                 }
-                library.stopReading("Czytelnik-2");
+                permit.release();
                 try {
                     Thread.sleep(10);
                 } catch (InterruptedException e) {
@@ -128,14 +130,14 @@ class IntegrationTest {
                 return;
             }
             while (running.get() && !Thread.currentThread().isInterrupted()) {
-                library.startWriting("Pisarz-1");
+                Permit permit = library.startWriting("Pisarz-1");
                 writerCount.incrementAndGet();
                 try {
                     Thread.sleep(30);
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                 }
-                library.stopWriting("Pisarz-1");
+                permit.release();
                 try {
                     Thread.sleep(10);
                 } catch (InterruptedException e) {
@@ -174,25 +176,26 @@ class IntegrationTest {
         Library library = new Library();
         List<String> entryOrder = Collections.synchronizedList(new ArrayList<>());
         
-        library.startWriting("Pisarz-Bloker");
+        Permit blocker = library.startWriting("Pisarz-Bloker");
+        Map<String, Permit> permits = new ConcurrentHashMap<>();
         
         Thread r1 = new Thread(() -> {
-            library.startReading("R1");
+            permits.put("R1", library.startReading("R1"));
             entryOrder.add("R1");
         });
         
         Thread w1 = new Thread(() -> {
-            library.startWriting("W1");
+            permits.put("W1", library.startWriting("W1"));
             entryOrder.add("W1");
         });
         
         Thread r2 = new Thread(() -> {
-            library.startReading("R2");
+            permits.put("R2", library.startReading("R2"));
             entryOrder.add("R2");
         });
         
         Thread r3 = new Thread(() -> {
-            library.startReading("R3");
+            permits.put("R3", library.startReading("R3"));
             entryOrder.add("R3");
         });
         
@@ -205,27 +208,27 @@ class IntegrationTest {
         r3.start();
         Thread.sleep(100);
         
-        library.stopWriting("Pisarz-Bloker");
+        blocker.release();
         
         Thread.sleep(200);
         
         assertEquals("R1", entryOrder.get(0));
         
         Thread.sleep(100);
-        library.stopReading("R1");
+        permits.remove("R1").release();
         
         Thread.sleep(200);
         assertEquals("W1", entryOrder.get(1));
         
-        library.stopWriting("W1");
+        permits.remove("W1").release();
         
         Thread.sleep(200);
         
         assertTrue(entryOrder.contains("R2"));
         assertTrue(entryOrder.contains("R3"));
         
-        library.stopReading("R2");
-        library.stopReading("R3");
+        permits.remove("R2").release();
+        permits.remove("R3").release();
         
         r1.join(1000);
         w1.join(1000);
@@ -247,7 +250,7 @@ class IntegrationTest {
         for (int i = 1; i <= 7; i++) {
             final String name = "R" + i;
             Thread t = new Thread(() -> {
-                library.startReading(name);
+                Permit permit = library.startReading(name);
                 maxConcurrent.updateAndGet(v -> Math.max(v, library.getActiveReaders()));
                 allReady.countDown();
                 try {
@@ -255,7 +258,7 @@ class IntegrationTest {
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                 }
-                library.stopReading(name);
+                permit.release();
             });
             threads.add(t);
             t.start();
@@ -289,7 +292,7 @@ class IntegrationTest {
             final String name = "R" + i;
             Thread t = new Thread(() -> {
                 for (int j = 0; j < 10; j++) {
-                    library.startReading(name);
+                    Permit permit = library.startReading(name);
                     if (library.getActiveWriters() > 0) {
                         violationDetected.set(true);
                     }
@@ -298,7 +301,7 @@ class IntegrationTest {
                     } catch (InterruptedException e) {
                         Thread.currentThread().interrupt();
                     }
-                    library.stopReading(name);
+                    permit.release();
                 }
             });
             threads.add(t);
@@ -308,7 +311,7 @@ class IntegrationTest {
             final String name = "W" + i;
             Thread t = new Thread(() -> {
                 for (int j = 0; j < 10; j++) {
-                    library.startWriting(name);
+                    Permit permit = library.startWriting(name);
                     if (library.getActiveReaders() > 0 || library.getActiveWriters() > 1) {
                         violationDetected.set(true);
                     }
@@ -317,7 +320,7 @@ class IntegrationTest {
                     } catch (InterruptedException e) {
                         Thread.currentThread().interrupt();
                     }
-                    library.stopWriting(name);
+                    permit.release();
                 }
             });
             threads.add(t);
@@ -333,4 +336,46 @@ class IntegrationTest {
         
         assertFalse(violationDetected.get(), "Wykryto naruszenie wyłączności pisarza");
     }
+    
+    @Test
+    @DisplayName("Tysiące klientów na wątkach wirtualnych powinny obsłużyć jedną czytelnię")
+    @Timeout(value = 60, unit = TimeUnit.SECONDS)
+    void manyVirtualClientsShouldShareOneLibrary() throws InterruptedException {
+        Library library = new Library(false);
+        int clients = 10_000;
+        List<Reader> readers = new ArrayList<>();
+        List<Writer> writers = new ArrayList<>();
+        for (int i = 1; i <= clients; i++) {
+            readers.add(new Reader(library, "Czytelnik-" + i, 0, 0, 0));
+        }
+        for (int i = 1; i <= 10; i++) {
+            writers.add(new Writer(library, "Pisarz-" + i, 0, 0, 0));
+        }
+        
+        for (Reader reader : readers) {
+            reader.startVirtual();
+        }
+        for (Writer writer : writers) {
+            writer.startVirtual();
+        }
+        while (library.getCompletedReads() < clients) {
+            Thread.sleep(50);
+        }
+        
+        for (Writer writer : writers) {
+            writer.stopRunning();
+        }
+        for (Reader reader : readers) {
+            reader.stopRunning();
+        }
+        for (Writer writer : writers) {
+            writer.getWorker().join();
+        }
+        for (Reader reader : readers) {
+            reader.getWorker().join();
+        }
+        
+        assertTrue(library.isEmpty());
+        assertEquals(0, library.getQueueSize());
+    }
 }
@@ -0,0 +1,107 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntentionLockTest {
+    
+    @Test
+    @DisplayName("Macierz zgodności trybów powinna być symetryczna i zgodna z definicją")
+    void compatibilityMatrixShouldMatchDefinition() {
+        for (LockMode a : LockMode.values()) {
+            for (LockMode b : LockMode.values()) {
+                assertEquals(a.isCompatibleWith(b), b.isCompatibleWith(a), a + "/" + b);
+            }
+        }
+        assertTrue(LockMode.IS.isCompatibleWith(LockMode.SIX));
+        assertTrue(LockMode.IX.isCompatibleWith(LockMode.IX));
+        assertFalse(LockMode.IX.isCompatibleWith(LockMode.S));
+        assertTrue(LockMode.S.isCompatibleWith(LockMode.S));
+        assertFalse(LockMode.SIX.isCompatibleWith(LockMode.SIX));
+        assertFalse(LockMode.X.isCompatibleWith(LockMode.IS));
+        
+        assertEquals(LockMode.IS, LockMode.S.intention());
+        assertEquals(LockMode.IX, LockMode.SIX.intention());
+        assertEquals(LockMode.IX, LockMode.X.intention());
+    }
+    
+    @Test
+    @DisplayName("Zgodne tryby powinny być trzymane jednocześnie, niezgodne odrzucone")
+    void compatibleModesShouldShareLock() {
+        IntentionLock lock = new IntentionLock("pokój-0");
+        
+        assertTrue(lock.tryAcquire(LockMode.IX));
+        assertTrue(lock.tryAcquire(LockMode.IS));
+        assertFalse(lock.tryAcquire(LockMode.S));
+        assertFalse(lock.tryAcquire(LockMode.X));
+        
+        lock.release(LockMode.IX);
+        assertTrue(lock.tryAcquire(LockMode.S));
+        assertEquals(1, lock.getHolders(LockMode.S));
+        
+        lock.release(LockMode.S);
+        lock.release(LockMode.IS);
+        assertTrue(lock.isFree());
+        assertThrows(IllegalStateException.class, () -> lock.release(LockMode.X));
+    }
+    
+    @Test
+    @DisplayName("Czekający powinni być wpuszczani w kolejności FIFO")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void waitersShouldBeAdmittedInFifoOrder() throws Exception {
+        IntentionLock lock = new IntentionLock("pokój-0");
+        assertTrue(lock.acquire(LockMode.S));
+        CompletableFuture<Boolean> exclusive = CompletableFuture.supplyAsync(() -> lock.acquire(LockMode.X));
+        while (lock.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        
+        assertFalse(lock.tryAcquire(LockMode.IS));
+        CompletableFuture<Boolean> intent = CompletableFuture.supplyAsync(() -> lock.acquire(LockMode.IS));
+        while (lock.getQueueSize() < 2) {
+            Thread.sleep(10);
+        }
+        
+        lock.release(LockMode.S);
+        assertTrue(exclusive.get(1, TimeUnit.SECONDS));
+        assertFalse(intent.isDone());
+        
+        lock.release(LockMode.X);
+        assertTrue(intent.get(1, TimeUnit.SECONDS));
+        lock.release(LockMode.IS);
+        assertTrue(lock.isFree());
+    }
+    
+    @Test
+    @DisplayName("Przerwany czekający powinien opuścić kolejkę i przepuścić następnych")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void interruptedWaiterShouldLeaveQueue() throws Exception {
+        IntentionLock lock = new IntentionLock("pokój-0");
+        assertTrue(lock.acquire(LockMode.IS));
+        AtomicBoolean result = new AtomicBoolean(true);
+        Thread exclusive = new Thread(() -> result.set(lock.acquire(LockMode.X)));
+        exclusive.start();
+        while (lock.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        CompletableFuture<Boolean> intent = CompletableFuture.supplyAsync(() -> lock.acquire(LockMode.IX));
+        while (lock.getQueueSize() < 2) {
+            Thread.sleep(10);
+        }
+        
+        exclusive.interrupt();
+        exclusive.join(1000);
+        
+        assertFalse(result.get());
+        assertTrue(intent.get(1, TimeUnit.SECONDS));
+        lock.release(LockMode.IX);
+        lock.release(LockMode.IS);
+        assertTrue(lock.isFree());
+        assertEquals(0, lock.getQueueSize());
+    }
+}
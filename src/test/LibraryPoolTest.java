@@ -0,0 +1,150 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LibraryPoolTest {
+    
+    @Test
+    @DisplayName("Klienci powinni rozłożyć się na wolne czytelnie puli")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void clientsShouldSpreadAcrossRooms() {
+        LibraryPool pool = new LibraryPool(4, 1);
+        List<Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            permits.add(pool.startReading("Czytelnik-" + i));
+        }
+        
+        for (Library room : pool.getRooms()) {
+            assertEquals(1, room.getActiveReaders());
+        }
+        assertEquals(0, pool.getQueueSize());
+        
+        for (Permit permit : permits) {
+            permit.release();
+        }
+        assertTrue(pool.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Czekający klient powinien przejść do czytelni, która zwolniła się pierwsza")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void waitingClientShouldMigrateToFreedRoom() throws Exception {
+        LibraryPool pool = new LibraryPool(2, 1);
+        Library first = pool.getRooms().get(0);
+        Library second = pool.getRooms().get(1);
+        Permit firstBlocker = first.startWriting("Pisarz-1");
+        Permit secondBlocker = second.startWriting("Pisarz-2");
+        
+        CompletableFuture<Permit> reader = CompletableFuture.supplyAsync(() -> pool.startReading("Czytelnik-1"));
+        while (pool.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        boolean queuedInFirst = first.getQueueSize() == 1;
+        Permit stillBlocking = queuedInFirst ? firstBlocker : secondBlocker;
+        (queuedInFirst ? secondBlocker : firstBlocker).release();
+        
+        Permit permit = reader.get(1, TimeUnit.SECONDS);
+        assertSame(queuedInFirst ? second : first, permit.getLibrary());
+        assertEquals(1, pool.getMigrations());
+        assertEquals(0, pool.getQueueSize());
+        
+        permit.release();
+        stillBlocking.release();
+        assertTrue(pool.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Wybór z dwóch prób powinien omijać bardziej obciążoną czytelnię")
+    void twoChoicesShouldAvoidLoadedRoom() {
+        LibraryPool pool = new LibraryPool(2, 5);
+        Permit busy = pool.getRooms().get(0).startReading("Czytelnik-1");
+        
+        for (int i = 0; i < 20; i++) {
+            Permit permit = pool.startWriting("Pisarz-" + i);
+            assertSame(pool.getRooms().get(1), permit.getLibrary());
+            permit.release();
+        }
+        
+        busy.release();
+        assertEquals(0, pool.getMigrations());
+        assertTrue(pool.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Współbieżni klienci puli powinni zachować niezmienniki każdej czytelni")
+    @Timeout(value = 20, unit = TimeUnit.SECONDS)
+    void concurrentClientsShouldKeepInvariants() throws InterruptedException {
+        LibraryPool pool = new LibraryPool(3, 2);
+        AtomicBoolean violation = new AtomicBoolean(false);
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final boolean writer = t < 2;
+            final String name = (writer ? "Pisarz-" : "Czytelnik-") + t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 300; i++) {
+                    try (Permit permit = writer ? pool.startWriting(name) : pool.startReading(name)) {
+                        Library room = permit.getLibrary();
+                        int readers = room.getActiveReaders();
+                        int writers = room.getActiveWriters();
+                        if (readers > 2 || writers > 1 || (writers == 1 && readers > 0)) {
+                            violation.set(true);
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertFalse(violation.get());
+        assertTrue(pool.isEmpty());
+        assertEquals(0, pool.getQueueSize());
+    }
+    
+    @Test
+    @DisplayName("Czekający klient powinien spać bez odpytywania i reagować na przerwanie")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void waitingClientShouldSleepUntilSignalled() throws Exception {
+        LibraryPool pool = new LibraryPool(2, 1);
+        Permit firstBlocker = pool.getRooms().get(0).startWriting("Pisarz-1");
+        Permit secondBlocker = pool.getRooms().get(1).startWriting("Pisarz-2");
+        AtomicReference<Permit> result = new AtomicReference<>();
+        
+        Thread reader = new Thread(() -> result.set(pool.startReading("Czytelnik-1")));
+        reader.start();
+        while (pool.getQueueSize() < 1 || reader.getState() != Thread.State.WAITING) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+        assertEquals(Thread.State.WAITING, reader.getState());
+        assertEquals(0, pool.getMigrations());
+        
+        reader.interrupt();
+        reader.join(1000);
+        assertNull(result.get());
+        assertEquals(0, pool.getQueueSize());
+        
+        firstBlocker.release();
+        secondBlocker.release();
+        assertTrue(pool.isEmpty());
+        assertEquals(0, pool.getMigrations());
+    }
+    
+    @Test
+    @DisplayName("Nieprawidłowa liczba czytelni powinna zostać odrzucona")
+    void invalidRoomCountShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new LibraryPool(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new LibraryPool(2, 0));
+    }
+}
@@ -0,0 +1,190 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LibrarySetTest {
+    
+    private Library first;
+    private Library second;
+    private Library third;
+    
+    @BeforeEach
+    void setUp() {
+        first = new Library(false);
+        second = new Library(false);
+        third = new Library(false);
+    }
+    
+    @Test
+    @DisplayName("Zestaw powinien zająć wszystkie czytelnie w żądanych trybach")
+    void acquireShouldHoldEveryLibrary() {
+        LibrarySet set = new LibrarySet(Arrays.asList(
+                LibrarySet.write(third), LibrarySet.read(first), LibrarySet.read(second)));
+                
+        LibrarySet.Grant grant = set.acquire("Zadanie-1");
+        
+        assertEquals(3, grant.getPermits().size());
+        assertEquals(1, first.getActiveReaders());
+        assertEquals(1, second.getActiveReaders());
+        assertEquals("Zadanie-1", third.getWriterInLibrary());
+        assertEquals(0, grant.getBackoffs());
+        
+        grant.release();
+        assertTrue(first.isEmpty() && second.isEmpty() && third.isEmpty());
+        assertThrows(IllegalStateException.class, grant::release);
+    }
+    
+    @Test
+    @DisplayName("Zestaw powinien porządkować czytelnie globalnie i scalać powtórzenia")
+    void accessesShouldBeOrderedAndMerged() {
+        LibrarySet set = new LibrarySet(Arrays.asList(
+                LibrarySet.read(second), LibrarySet.read(first), LibrarySet.write(second)));
+                
+        assertEquals(2, set.getAccesses().size());
+        assertSame(first, set.getAccesses().get(0).getLibrary());
+        assertSame(second, set.getAccesses().get(1).getLibrary());
+        assertTrue(set.getAccesses().get(1).isWriter());
+        assertThrows(IllegalArgumentException.class, () -> new LibrarySet(Collections.emptyList()));
+    }
+    
+    @Test
+    @DisplayName("Czekając na zajętą czytelnię zestaw nie powinien trzymać pozostałych")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void waitingShouldNotHoldOtherLibraries() throws Exception {
+        Permit blocker = second.startWriting("Pisarz-1");
+        LibrarySet set = new LibrarySet(Arrays.asList(LibrarySet.read(first), LibrarySet.write(second)));
+        CompletableFuture<LibrarySet.Grant> job = CompletableFuture.supplyAsync(() -> set.acquire("Zadanie-1"));
+        while (second.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        
+        assertTrue(first.isEmpty());
+        Permit writer = first.tryStartWriting("Pisarz-2");
+        assertNotNull(writer);
+        writer.release();
+        
+        blocker.release();
+        LibrarySet.Grant grant = job.get(1, TimeUnit.SECONDS);
+        assertEquals(1, grant.getBackoffs());
+        assertEquals(1, set.getBackoffs());
+        assertEquals(1, first.getActiveReaders());
+        
+        grant.release();
+        assertTrue(first.isEmpty() && second.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Zajmowanie po kolei powinno czekać na każdą czytelnię w globalnym porządku")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void acquireInOrderShouldHoldWhileWaiting() throws Exception {
+        Permit blocker = second.startReading("Czytelnik-1");
+        LibrarySet set = new LibrarySet(Arrays.asList(LibrarySet.write(second), LibrarySet.write(first)));
+        CompletableFuture<LibrarySet.Grant> job = CompletableFuture.supplyAsync(() -> set.acquireInOrder("Zadanie-1"));
+        while (second.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        
+        assertEquals("Zadanie-1", first.getWriterInLibrary());
+        
+        blocker.release();
+        LibrarySet.Grant grant = job.get(1, TimeUnit.SECONDS);
+        assertEquals(0, grant.getBackoffs());
+        assertEquals("Zadanie-1", second.getWriterInLibrary());
+        
+        grant.release();
+        assertTrue(first.isEmpty() && second.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Limit czasu powinien zwrócić null bez trzymania czytelni")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void timeoutShouldReleaseEverything() throws InterruptedException {
+        Permit blocker = third.startWriting("Pisarz-1");
+        LibrarySet set = new LibrarySet(Arrays.asList(
+                LibrarySet.write(first), LibrarySet.read(second), LibrarySet.read(third)));
+                
+        assertNull(set.tryAcquire("Zadanie-1", 50, TimeUnit.MILLISECONDS));
+        
+        assertTrue(first.isEmpty() && second.isEmpty());
+        assertEquals(0, third.getQueueSize());
+        blocker.release();
+        
+        LibrarySet.Grant grant = set.tryAcquire("Zadanie-1", 1, TimeUnit.SECONDS);
+        assertNotNull(grant);
+        grant.release();
+    }
+    
+    @Test
+    @DisplayName("Zadania żądające czytelni w przeciwnej kolejności nie powinny się zakleszczyć")
+    @Timeout(value = 20, unit = TimeUnit.SECONDS)
+    void oppositeOrdersShouldNotDeadlock() throws InterruptedException {
+        LibrarySet forward = new LibrarySet(Arrays.asList(LibrarySet.write(first), LibrarySet.write(second)));
+        LibrarySet backward = new LibrarySet(Arrays.asList(LibrarySet.write(second), LibrarySet.write(first)));
+        AtomicBoolean violation = new AtomicBoolean(false);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final LibrarySet set = t % 2 == 0 ? forward : backward;
+            final String name = "Zadanie-" + t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 300; i++) {
+                    try (LibrarySet.Grant grant = set.acquire(name)) {
+                        if (!name.equals(first.getWriterInLibrary()) || !name.equals(second.getWriterInLibrary())) {
+                            violation.set(true);
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertFalse(violation.get());
+        assertTrue(first.isEmpty() && second.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Nakładające się zestawy pod dużą rywalizacją powinny kończyć bez uwięźnięcia")
+    @Timeout(value = 20, unit = TimeUnit.SECONDS)
+    void overlappingSetsShouldMakeProgressUnderContention() throws InterruptedException {
+        LibrarySet left = new LibrarySet(Arrays.asList(LibrarySet.write(first), LibrarySet.write(second)));
+        LibrarySet right = new LibrarySet(Arrays.asList(LibrarySet.write(second), LibrarySet.write(third)));
+        AtomicBoolean violation = new AtomicBoolean(false);
+        AtomicInteger completed = new AtomicInteger();
+        Thread[] threads = new Thread[6];
+        for (int t = 0; t < threads.length; t++) {
+            final LibrarySet set = t % 2 == 0 ? left : right;
+            final String name = "Zadanie-" + t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 200; i++) {
+                    LibrarySet.Grant grant = set.acquire(name);
+                    if (grant.getBackoffs() > LibrarySet.MAX_BACKOFFS || !name.equals(second.getWriterInLibrary())) {
+                        violation.set(true);
+                    }
+                    Thread.onSpinWait();
+                    grant.release();
+                    completed.incrementAndGet();
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertFalse(violation.get());
+        assertEquals(threads.length * 200, completed.get());
+        assertTrue(first.isEmpty() && second.isEmpty() && third.isEmpty());
+    }
+}
@@ -3,19 +3,50 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Timeout;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class LibraryTest {
     
     private Library library;
+    private final Map<String, Permit> permits = new ConcurrentHashMap<>();
+    
+    private void enter(Permit permit) {
+        permits.put(permit.getName(), permit);
+    }
+    
+    private void leave(String name) throws InterruptedException {
+        Permit permit;
+        while ((permit = permits.remove(name)) == null) {
+            Thread.sleep(1);
+        }
+        permit.release();
+    }
+    
+    @SuppressWarnings("deprecation")
+    private void stopReading(String readerName) {
+        library.stopReading(readerName);
+    }
+    
+    @SuppressWarnings("deprecation")
+    private void stopWriting(String writerName) {
+        library.stopWriting(writerName);
+    }
     
     @BeforeEach
     void setUp() {
@@ -49,7 +80,7 @@ class LibraryTest {
         assertFalse(library.isEmpty());
         assertTrue(library.getReadersInLibrary().contains("Czytelnik-1"));
         
-        library.stopReading("Czytelnik-1");
+        stopReading("Czytelnik-1");
         
         assertEquals(0, library.getActiveReaders());
         assertTrue(library.isEmpty());
@@ -66,7 +97,7 @@ class LibraryTest {
         assertFalse(library.isEmpty());
         assertEquals("Pisarz-1", library.getWriterInLibrary());
         
-        library.stopWriting("Pisarz-1");
+        stopWriting("Pisarz-1");
         
         assertEquals(0, library.getActiveWriters());
         assertTrue(library.isEmpty());
@@ -101,7 +132,7 @@ class LibraryTest {
         assertEquals(5, library.getActiveReaders());
         
         for (int i = 1; i <= 5; i++) {
-            library.stopReading("Czytelnik-" + i);
+            stopReading("Czytelnik-" + i);
         }
         
         for (Thread t : threads) {
@@ -130,14 +161,14 @@ class LibraryTest {
         assertFalse(sixthEntered.get());
         assertEquals(1, library.getQueueSize());
         
-        library.stopReading("Czytelnik-1");
+        stopReading("Czytelnik-1");
         
         Thread.sleep(200);
         assertTrue(sixthEntered.get());
         assertEquals(5, library.getActiveReaders());
         
         for (int i = 2; i <= 6; i++) {
-            library.stopReading("Czytelnik-" + i);
+            stopReading("Czytelnik-" + i);
         }
         
         sixthReader.join(1000);
@@ -160,13 +191,13 @@ class LibraryTest {
         assertFalse(writerEntered.get());
         assertEquals(1, library.getQueueSize());
         
-        library.stopReading("Czytelnik-1");
+        stopReading("Czytelnik-1");
         
         Thread.sleep(200);
         assertTrue(writerEntered.get());
         assertEquals(1, library.getActiveWriters());
         
-        library.stopWriting("Pisarz-1");
+        stopWriting("Pisarz-1");
         writerThread.join(1000);
     }
     
@@ -187,13 +218,13 @@ class LibraryTest {
         assertFalse(readerEntered.get());
         assertEquals(1, library.getQueueSize());
         
-        library.stopWriting("Pisarz-1");
+        stopWriting("Pisarz-1");
         
         Thread.sleep(200);
         assertTrue(readerEntered.get());
         assertEquals(1, library.getActiveReaders());
         
-        library.stopReading("Czytelnik-1");
+        stopReading("Czytelnik-1");
         readerThread.join(1000);
     }
     
@@ -214,14 +245,14 @@ class LibraryTest {
         assertFalse(secondWriterEntered.get());
         assertEquals(1, library.getQueueSize());
         
-        library.stopWriting("Pisarz-1");
+        stopWriting("Pisarz-1");
         
         Thread.sleep(200);
         assertTrue(secondWriterEntered.get());
         assertEquals(1, library.getActiveWriters());
         assertEquals("Pisarz-2", library.getWriterInLibrary());
         
-        library.stopWriting("Pisarz-2");
+        stopWriting("Pisarz-2");
         secondWriter.join(1000);
     }
     
@@ -249,21 +280,21 @@ class LibraryTest {
         
         assertEquals(2, library.getQueueSize());
         
-        library.stopReading("Czytelnik-1");
+        stopReading("Czytelnik-1");
         
         Thread.sleep(300);
         
         assertEquals(1, entryOrder.size());
         assertEquals("Pisarz-1", entryOrder.get(0));
         
-        library.stopWriting("Pisarz-1");
+        stopWriting("Pisarz-1");
         
         Thread.sleep(200);
         
         assertEquals(2, entryOrder.size());
         assertEquals("Czytelnik-2", entryOrder.get(1));
         
-        library.stopReading("Czytelnik-2");
+        stopReading("Czytelnik-2");
         
         writerThread.join(1000);
         reader2Thread.join(1000);
@@ -288,7 +319,7 @@ class LibraryTest {
         
         assertEquals(0, library.getQueueSize());
         
-        library.stopWriting("Pisarz-1");
+        stopWriting("Pisarz-1");
         readerThread.join(1000);
     }
     
@@ -311,7 +342,7 @@ class LibraryTest {
         
         assertEquals(0, library.getQueueSize());
         
-        library.stopReading("Czytelnik-1");
+        stopReading("Czytelnik-1");
         writerThread.join(1000);
     }
     
@@ -352,7 +383,7 @@ class LibraryTest {
                         Thread.currentThread().interrupt();
                     }
                     
-                    library.stopReading(name);
+                    stopReading(name);
                     
                     try {
                         Thread.sleep(5);
@@ -388,7 +419,7 @@ class LibraryTest {
                         Thread.currentThread().interrupt();
                     }
                     
-                    library.stopWriting(name);
+                    stopWriting(name);
                     
                     try {
                         Thread.sleep(5);
@@ -432,7 +463,7 @@ class LibraryTest {
                     } catch (InterruptedException e) {
                         Thread.currentThread().interrupt();
                     }
-                    library.stopReading(name);
+                    stopReading(name);
                     try {
                         Thread.sleep(10);
                     } catch (InterruptedException e) {
@@ -449,7 +480,7 @@ class LibraryTest {
         Thread writerThread = new Thread(() -> {
             library.startWriting("Pisarz-1");
             writerEntered.set(true);
-            library.stopWriting("Pisarz-1");
+            stopWriting("Pisarz-1");
         });
         writerThread.start();
         
@@ -483,7 +514,7 @@ class LibraryTest {
                     } catch (InterruptedException e) {
                         Thread.currentThread().interrupt();
                     }
-                    library.stopWriting(name);
+                    stopWriting(name);
                     try {
                         Thread.sleep(10);
                     } catch (InterruptedException e) {
@@ -500,7 +531,7 @@ class LibraryTest {
         Thread readerThread = new Thread(() -> {
             library.startReading("Czytelnik-1");
             readerEntered.set(true);
-            library.stopReading("Czytelnik-1");
+            stopReading("Czytelnik-1");
         });
         readerThread.start();
         
@@ -522,7 +553,7 @@ class LibraryTest {
     void canReaderEnterShouldReturnTrueWhenNoReadersBeforeInQueue() throws InterruptedException {
         Thread readerThread = new Thread(() -> {
             library.startReading("Czytelnik-1");
-            library.stopReading("Czytelnik-1");
+            stopReading("Czytelnik-1");
         });
         
         readerThread.start();
@@ -547,7 +578,7 @@ class LibraryTest {
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
-            library.stopReading("Czytelnik-1");
+            stopReading("Czytelnik-1");
         });
         
         Thread reader2 = new Thread(() -> {
@@ -559,7 +590,7 @@ class LibraryTest {
             }
             library.startReading("Czytelnik-2");
             reader2Entered.countDown();
-            library.stopReading("Czytelnik-2");
+            stopReading("Czytelnik-2");
         });
         
         Thread reader3 = new Thread(() -> {
@@ -571,7 +602,7 @@ class LibraryTest {
             }
             library.startReading("Czytelnik-3");
             reader3Entered.countDown();
-            library.stopReading("Czytelnik-3");
+            stopReading("Czytelnik-3");
         });
         
         reader1.start();
@@ -603,7 +634,7 @@ class LibraryTest {
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
-            library.stopReading("Czytelnik-1");
+            stopReading("Czytelnik-1");
         });
         
         Thread writer1 = new Thread(() -> {
@@ -616,7 +647,7 @@ class LibraryTest {
             }
             library.startWriting("Pisarz-1");
             writerEntered.set(true);
-            library.stopWriting("Pisarz-1");
+            stopWriting("Pisarz-1");
         });
         
         reader1.start();
@@ -646,7 +677,7 @@ class LibraryTest {
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
-            library.stopWriting("Pisarz-1");
+            stopWriting("Pisarz-1");
         });
         
         writer.start();
@@ -663,7 +694,7 @@ class LibraryTest {
         library.startReading("Czytelnik-1");
         assertEquals(1, library.getActiveReaders());
         
-        library.stopReading("Czytelnik-1");
+        stopReading("Czytelnik-1");
         
         assertEquals(0, library.getActiveReaders());
         assertEquals(0, library.getQueueSize());
@@ -677,7 +708,7 @@ class LibraryTest {
         library.startWriting("Pisarz-1");
         assertEquals(1, library.getActiveWriters());
         
-        library.stopWriting("Pisarz-1");
+        stopWriting("Pisarz-1");
         
         assertEquals(0, library.getActiveWriters());
         assertEquals(0, library.getQueueSize());
@@ -701,7 +732,7 @@ class LibraryTest {
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
-            library.stopReading("Czytelnik-1");
+            stopReading("Czytelnik-1");
         });
         
         Thread writer1 = new Thread(() -> {
@@ -718,7 +749,7 @@ class LibraryTest {
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
-            library.stopWriting("Pisarz-1");
+            stopWriting("Pisarz-1");
         });
         
         Thread reader2 = new Thread(() -> {
@@ -731,7 +762,7 @@ class LibraryTest {
             }
             library.startReading("Czytelnik-2");
             reader2Entered.set(true);
-            library.stopReading("Czytelnik-2");
+            stopReading("Czytelnik-2");
         });
         
         reader1.start();
@@ -767,7 +798,7 @@ class LibraryTest {
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                 }
-                library.stopReading("Czytelnik-" + id);
+                stopReading("Czytelnik-" + id);
             });
             threads.add(t);
             t.start();
@@ -796,7 +827,7 @@ class LibraryTest {
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
-            library.stopWriting("Pisarz-1");
+            stopWriting("Pisarz-1");
         });
         
         Thread writer2 = new Thread(() -> {
@@ -808,7 +839,7 @@ class LibraryTest {
             }
             library.startWriting("Pisarz-2");
             writer2Entered.set(true);
-            library.stopWriting("Pisarz-2");
+            stopWriting("Pisarz-2");
         });
         
         writer1.start();
@@ -840,7 +871,7 @@ class LibraryTest {
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
-            library.stopReading("Czytelnik-1");
+            stopReading("Czytelnik-1");
         });
         
         Thread reader2 = new Thread(() -> {
@@ -851,7 +882,7 @@ class LibraryTest {
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
-            library.stopReading("Czytelnik-2");
+            stopReading("Czytelnik-2");
         });
         
         Thread writer = new Thread(() -> {
@@ -863,7 +894,7 @@ class LibraryTest {
             }
             library.startWriting("Pisarz-1");
             writerEntered.set(true);
-            library.stopWriting("Pisarz-1");
+            stopWriting("Pisarz-1");
         });
         
         reader1.start();
@@ -891,7 +922,7 @@ class LibraryTest {
         Thread writer = new Thread(() -> {
             library.startWriting("Pisarz-1");
             writerEntered.set(true);
-            library.stopWriting("Pisarz-1");
+            stopWriting("Pisarz-1");
         });
         
         writer.start();
@@ -899,4 +930,1037 @@ class LibraryTest {
         
         assertTrue(writerEntered.get());
     }
+    
+    @Test
+    @DisplayName("Wyjście pisarza powinno od razu wpuścić czytelników z czoła kolejki do limitu")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void writerExitShouldHandOffToReadersAtHeadUpToLimit() throws InterruptedException {
+        enter(library.startWriting("Pisarz-1"));
+        
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 1; i <= 7; i++) {
+            final String name = "Czytelnik-" + i;
+            Thread t = new Thread(() -> enter(library.startReading(name)));
+            threads.add(t);
+            t.start();
+        }
+        
+        while (library.getQueueSize() < 7) {
+            Thread.sleep(10);
+        }
+        
+        leave("Pisarz-1");
+        
+        assertEquals(5, library.getActiveReaders());
+        assertEquals(2, library.getQueueSize());
+        
+        List<String> inside = library.getReadersInLibrary();
+        for (String name : inside) {
+            leave(name);
+        }
+        
+        assertEquals(2, library.getActiveReaders());
+        assertEquals(0, library.getQueueSize());
+        
+        for (String name : library.getReadersInLibrary()) {
+            leave(name);
+        }
+        
+        for (Thread t : threads) {
+            t.join(1000);
+        }
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Kolejność biletów powinna być zachowana między czytelnikami a pisarzami")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void ticketOrderShouldBeRespectedAcrossRoles() throws InterruptedException {
+        enter(library.startWriting("Pisarz-1"));
+        
+        List<Thread> threads = new ArrayList<>();
+        String[] arrivals = {"Czytelnik-1", "Pisarz-2", "Czytelnik-2", "Czytelnik-3"};
+        for (String name : arrivals) {
+            Thread t = new Thread(() -> {
+                if (name.startsWith("Pisarz")) {
+                    enter(library.startWriting(name));
+                } else {
+                    enter(library.startReading(name));
+                }
+            });
+            threads.add(t);
+            int queued = library.getQueueSize();
+            t.start();
+            while (library.getQueueSize() == queued) {
+                Thread.sleep(10);
+            }
+        }
+        
+        leave("Pisarz-1");
+        assertEquals(List.of("Czytelnik-1"), library.getReadersInLibrary());
+        assertEquals(3, library.getQueueSize());
+        
+        leave("Czytelnik-1");
+        assertEquals("Pisarz-2", library.getWriterInLibrary());
+        assertEquals(2, library.getQueueSize());
+        
+        leave("Pisarz-2");
+        assertEquals(2, library.getActiveReaders());
+        assertEquals(0, library.getQueueSize());
+        
+        leave("Czytelnik-2");
+        leave("Czytelnik-3");
+        
+        for (Thread t : threads) {
+            t.join(1000);
+        }
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Przerwany czytelnik ze środka kolejki powinien z niej wypaść bez wpływu na sąsiadów")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void interruptedReaderInMiddleOfQueueShouldBeUnlinked() throws InterruptedException {
+        enter(library.startWriting("Pisarz-1"));
+        
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicBoolean returned = new AtomicBoolean(false);
+        AtomicReference<Permit> interruptedResult = new AtomicReference<>();
+        AtomicBoolean interruptFlag = new AtomicBoolean(false);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            final String name = "Czytelnik-" + i;
+            Thread t = i == 2
+                    ? new Thread(() -> {
+                        interruptedResult.set(library.startReading(name));
+                        interruptFlag.set(Thread.currentThread().isInterrupted());
+                        returned.set(true);
+                    })
+                    : new Thread(() -> enter(library.startReading(name)));
+            t.setUncaughtExceptionHandler((thread, e) -> failure.set(e));
+            threads.add(t);
+            int queued = library.getQueueSize();
+            t.start();
+            while (library.getQueueSize() == queued) {
+                Thread.sleep(10);
+            }
+        }
+        
+        threads.get(1).interrupt();
+        threads.get(1).join(1000);
+        assertTrue(returned.get());
+        assertNull(interruptedResult.get());
+        assertTrue(interruptFlag.get());
+        assertEquals(2, library.getQueueSize());
+        
+        leave("Pisarz-1");
+        
+        assertEquals(2, library.getActiveReaders());
+        assertTrue(library.getReadersInLibrary().containsAll(List.of("Czytelnik-1", "Czytelnik-3")));
+        assertEquals(0, library.getQueueSize());
+        
+        leave("Czytelnik-1");
+        leave("Czytelnik-3");
+        
+        for (Thread t : threads) {
+            t.join(1000);
+        }
+        assertNull(failure.get());
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Cicha czytelnia powinna wpuszczać bez kolejki gdy nikt nie czeka")
+    void quietLibraryShouldAdmitWithoutQueueWhenUncontended() throws InterruptedException {
+        Library quiet = new Library(false);
+        
+        for (int i = 1; i <= 5; i++) {
+            enter(quiet.startReading("Czytelnik-" + i));
+        }
+        assertEquals(5, quiet.getActiveReaders());
+        assertEquals(0, quiet.getQueueSize());
+        
+        for (int i = 1; i <= 5; i++) {
+            leave("Czytelnik-" + i);
+        }
+        assertTrue(quiet.isEmpty());
+        
+        enter(quiet.startWriting("Pisarz-1"));
+        assertEquals("Pisarz-1", quiet.getWriterInLibrary());
+        leave("Pisarz-1");
+        assertTrue(quiet.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Czytelnik nie powinien wyprzedzić czekającego pisarza mimo wolnych miejsc")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void readerShouldNotOvertakeQueuedWriterWhenSlotsAreFree() throws InterruptedException {
+        Library quiet = new Library(false);
+        enter(quiet.startReading("Czytelnik-1"));
+        
+        Thread writer = new Thread(() -> enter(quiet.startWriting("Pisarz-1")));
+        writer.start();
+        while (quiet.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        
+        Thread reader = new Thread(() -> enter(quiet.startReading("Czytelnik-2")));
+        reader.start();
+        while (quiet.getQueueSize() < 2) {
+            Thread.sleep(10);
+        }
+        
+        assertEquals(1, quiet.getActiveReaders());
+        
+        leave("Czytelnik-1");
+        writer.join(1000);
+        assertEquals("Pisarz-1", quiet.getWriterInLibrary());
+        assertEquals(1, quiet.getQueueSize());
+        
+        leave("Pisarz-1");
+        reader.join(1000);
+        assertEquals(1, quiet.getActiveReaders());
+        assertEquals(Set.of("Czytelnik-2"), permits.keySet());
+        
+        leave("Czytelnik-2");
+        assertTrue(quiet.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Cicha czytelnia FIFO powinna odmówić listy czytelników zamiast zwracać pustą")
+    void quietFifoLibraryShouldRefuseReaderList() {
+        Library quiet = new Library(false);
+        
+        Permit reader = quiet.startReading("Czytelnik-1");
+        assertEquals(1, quiet.getActiveReaders());
+        assertThrows(IllegalStateException.class, quiet::getReadersInLibrary);
+        reader.release();
+        
+        quiet.enableReadTracking();
+        Permit tracked = quiet.startReading("Czytelnik-2");
+        assertEquals(List.of("Czytelnik-2"), quiet.getReadersInLibrary());
+        tracked.release();
+        assertTrue(quiet.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Cicha czytelnia nie powinna śledzić czytelników na szybkiej ścieżce")
+    void quietLibraryShouldNotTrackFastPathReaders() {
+        Library quiet = new Library(false, true);
+        
+        Permit untracked = quiet.startReading("Czytelnik-1");
+        assertThrows(IllegalStateException.class, quiet::getReadersInLibrary);
+        assertEquals(1, quiet.getActiveReaders());
+        untracked.release();
+        assertEquals(1, quiet.getCompletedReads());
+        assertEquals(0, quiet.getTimedReads());
+        assertEquals(0, quiet.getTotalReadNanos());
+        
+        quiet.enableReadTracking();
+        Permit tracked = quiet.startReading("Czytelnik-2");
+        assertEquals(List.of("Czytelnik-2"), quiet.getReadersInLibrary());
+        tracked.release();
+        assertEquals(2, quiet.getCompletedReads());
+        assertEquals(1, quiet.getTimedReads());
+        assertTrue(quiet.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Stara metoda stopReading powinna zgłosić błąd gdy czytelnia nie śledzi czytelników")
+    @SuppressWarnings("deprecation")
+    void legacyStopShouldFailWithoutTracking() {
+        Library quiet = new Library(false);
+        Permit permit = quiet.startReading("Czytelnik-1");
+        
+        assertThrows(IllegalStateException.class, () -> quiet.stopReading("Czytelnik-1"));
+        assertFalse(permit.isReleased());
+        permit.release();
+        assertTrue(quiet.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Cicha czytelnia powinna zachować zasady przy dużej współbieżności")
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void quietLibraryShouldKeepInvariantsUnderContention() throws InterruptedException {
+        Library quiet = new Library(false);
+        AtomicBoolean violationDetected = new AtomicBoolean(false);
+        List<Thread> threads = new ArrayList<>();
+        
+        for (int i = 1; i <= 12; i++) {
+            final String name = (i % 4 == 0 ? "Pisarz-" : "Czytelnik-") + i;
+            final boolean writer = i % 4 == 0;
+            Thread t = new Thread(() -> {
+                for (int j = 0; j < 2000; j++) {
+                    if (writer) {
+                        Permit permit = quiet.startWriting(name);
+                        if (quiet.getActiveReaders() > 0) {
+                            violationDetected.set(true);
+                        }
+                        permit.release();
+                    } else {
+                        Permit permit = quiet.startReading(name);
+                        if (quiet.getActiveReaders() > 5 || quiet.getActiveWriters() > 0) {
+                            violationDetected.set(true);
+                        }
+                        permit.release();
+                    }
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        
+        for (Thread t : threads) {
+            t.join(20000);
+        }
+        
+        assertFalse(violationDetected.get(), "Wykryto naruszenie zasad czytelni");
+        assertTrue(quiet.isEmpty());
+        assertEquals(0, quiet.getQueueSize());
+    }
+    
+    @Test
+    @DisplayName("Czytelnia z preferencją czytelników powinna zachować limit i wyłączność pisarza")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void readBiasedLibraryShouldKeepCapacityAndWriterExclusion() throws InterruptedException {
+        Library biased = new Library(false, true);
+        assertTrue(biased.isReadBiased());
+        
+        for (int i = 1; i <= 5; i++) {
+            enter(biased.startReading("Czytelnik-" + i));
+        }
+        assertEquals(5, biased.getActiveReaders());
+        assertEquals(0, biased.getQueueSize());
+        
+        Thread writer = new Thread(() -> enter(biased.startWriting("Pisarz-1")));
+        writer.start();
+        while (biased.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        
+        Thread reader = new Thread(() -> enter(biased.startReading("Czytelnik-6")));
+        reader.start();
+        while (biased.getQueueSize() < 2) {
+            Thread.sleep(10);
+        }
+        
+        for (int i = 1; i <= 5; i++) {
+            leave("Czytelnik-" + i);
+        }
+        writer.join(1000);
+        assertEquals("Pisarz-1", biased.getWriterInLibrary());
+        assertEquals(0, biased.getActiveReaders());
+        
+        leave("Pisarz-1");
+        reader.join(1000);
+        assertEquals(1, biased.getActiveReaders());
+        assertEquals(Set.of("Czytelnik-6"), permits.keySet());
+        
+        leave("Czytelnik-6");
+        assertTrue(biased.isEmpty());
+        
+        enter(biased.startReading("Czytelnik-7"));
+        assertEquals(1, biased.getActiveReaders());
+        assertEquals(0, biased.getQueueSize());
+        leave("Czytelnik-7");
+    }
+    
+    @Test
+    @DisplayName("Po samotnym pisarzu czytelnicy powinni wrócić do pasów")
+    void readsShouldReturnToStripesAfterLoneWriter() {
+        Library biased = new Library(false, true);
+        
+        Permit before = biased.startReading("Czytelnik-1");
+        assertTrue(before.getStripe() >= 0);
+        before.release();
+        
+        biased.startWriting("Pisarz-1").release();
+        
+        for (int i = 2; i <= 4; i++) {
+            Permit reader = biased.startReading("Czytelnik-" + i);
+            assertTrue(reader.getStripe() >= 0);
+            reader.release();
+        }
+        
+        Permit writer = biased.tryStartWriting("Pisarz-2");
+        assertNotNull(writer);
+        writer.release();
+        
+        Permit after = biased.startReading("Czytelnik-5");
+        assertTrue(after.getStripe() >= 0);
+        after.release();
+        assertTrue(biased.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Czytelnia z preferencją czytelników powinna zachować zasady przy dużej współbieżności")
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void readBiasedLibraryShouldKeepInvariantsUnderContention() throws InterruptedException {
+        Library biased = new Library(false, true);
+        AtomicBoolean violationDetected = new AtomicBoolean(false);
+        List<Thread> threads = new ArrayList<>();
+        
+        for (int i = 1; i <= 12; i++) {
+            final String name = (i % 6 == 0 ? "Pisarz-" : "Czytelnik-") + i;
+            final boolean writer = i % 6 == 0;
+            Thread t = new Thread(() -> {
+                for (int j = 0; j < 2000; j++) {
+                    if (writer) {
+                        Permit permit = biased.startWriting(name);
+                        if (biased.getActiveReaders() > 0) {
+                            violationDetected.set(true);
+                        }
+                        permit.release();
+                    } else {
+                        Permit permit = biased.startReading(name);
+                        if (biased.getActiveReaders() > 5 || biased.getActiveWriters() > 0) {
+                            violationDetected.set(true);
+                        }
+                        permit.release();
+                    }
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        
+        for (Thread t : threads) {
+            t.join(20000);
+        }
+        
+        assertFalse(violationDetected.get(), "Wykryto naruszenie zasad czytelni");
+        assertTrue(biased.isEmpty());
+        assertEquals(0, biased.getQueueSize());
+    }
+    
+    @Test
+    @DisplayName("Zwiększenie pojemności powinno od razu wpuścić czekających czytelników")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void growingCapacityShouldAdmitWaitingReaders() throws InterruptedException {
+        for (int i = 1; i <= 5; i++) {
+            enter(library.startReading("Czytelnik-" + i));
+        }
+        
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 6; i <= 7; i++) {
+            final String name = "Czytelnik-" + i;
+            Thread t = new Thread(() -> enter(library.startReading(name)));
+            threads.add(t);
+            t.start();
+        }
+        while (library.getQueueSize() < 2) {
+            Thread.sleep(10);
+        }
+        
+        library.setMaxReaders(7);
+        
+        assertEquals(7, library.getMaxReaders());
+        assertEquals(7, library.getActiveReaders());
+        assertEquals(0, library.getQueueSize());
+        
+        for (Thread t : threads) {
+            t.join(1000);
+        }
+        for (int i = 1; i <= 7; i++) {
+            leave("Czytelnik-" + i);
+        }
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Zmniejszenie pojemności powinno wstrzymać nowych czytelników do czasu zwolnienia miejsc")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void shrinkingCapacityShouldHoldNewReaders() throws InterruptedException {
+        Library biased = new Library(false, true);
+        for (int i = 1; i <= 3; i++) {
+            enter(biased.startReading("Czytelnik-" + i));
+        }
+        
+        biased.setMaxReaders(2);
+        
+        Thread reader = new Thread(() -> enter(biased.startReading("Czytelnik-4")));
+        reader.start();
+        while (biased.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        
+        leave("Czytelnik-1");
+        assertEquals(1, biased.getQueueSize());
+        
+        leave("Czytelnik-2");
+        reader.join(1000);
+        assertEquals(0, biased.getQueueSize());
+        assertEquals(2, biased.getActiveReaders());
+        
+        leave("Czytelnik-3");
+        leave("Czytelnik-4");
+        assertTrue(biased.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Pojemność musi być dodatnia")
+    void capacityMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> library.setMaxReaders(0));
+        assertThrows(IllegalArgumentException.class, () -> new Library(false, false, -1));
+        assertEquals(5, library.getMaxReaders());
+    }
+    
+    @Test
+    @DisplayName("Asynchroniczne wejście do pustej czytelni powinno zakończyć się od razu")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void asyncAcquireShouldCompleteImmediatelyWhenRoomIsFree() throws Exception {
+        CompletableFuture<Permit> read = library.acquireReadAsync("Czytelnik-1");
+        
+        assertTrue(read.isDone());
+        Permit permit = read.get();
+        assertEquals("Czytelnik-1", permit.getName());
+        assertFalse(permit.isWriter());
+        assertEquals(1, library.getActiveReaders());
+        
+        permit.release();
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Asynchroniczny pisarz powinien zostać wpuszczony po wyjściu czytelnika")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void asyncWriterShouldBeAdmittedAfterReaderLeaves() throws Exception {
+        enter(library.startReading("Czytelnik-1"));
+        
+        CompletableFuture<Permit> write = library.acquireWriteAsync("Pisarz-1");
+        CompletableFuture<Permit> read = library.acquireReadAsync("Czytelnik-2");
+        
+        assertFalse(write.isDone());
+        assertFalse(read.isDone());
+        assertEquals(2, library.getQueueSize());
+        
+        leave("Czytelnik-1");
+        
+        Permit writer = write.get(1, TimeUnit.SECONDS);
+        assertEquals("Pisarz-1", library.getWriterInLibrary());
+        assertFalse(read.isDone());
+        
+        writer.release();
+        
+        Permit reader = read.get(1, TimeUnit.SECONDS);
+        assertEquals(List.of("Czytelnik-2"), library.getReadersInLibrary());
+        reader.release();
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Anulowanie oczekującego żądania powinno usunąć je z kolejki i wpuścić następnych")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void cancellingAsyncRequestShouldUnlinkAndAdmitFollowers() throws Exception {
+        enter(library.startReading("Czytelnik-1"));
+        
+        CompletableFuture<Permit> write = library.acquireWriteAsync("Pisarz-1");
+        CompletableFuture<Permit> read = library.acquireReadAsync("Czytelnik-2");
+        assertEquals(2, library.getQueueSize());
+        
+        assertTrue(write.cancel(false));
+        
+        Permit reader = read.get(1, TimeUnit.SECONDS);
+        assertEquals(0, library.getQueueSize());
+        assertEquals(2, library.getActiveReaders());
+        
+        reader.release();
+        leave("Czytelnik-1");
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Wiele asynchronicznych żądań powinno zostać obsłużonych bez blokowania wątków")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void manyAsyncRequestsShouldAllBeServed() throws Exception {
+        Library quiet = new Library(false);
+        enter(quiet.startWriting("Pisarz-0"));
+        
+        List<CompletableFuture<Void>> visits = new ArrayList<>();
+        AtomicBoolean violationDetected = new AtomicBoolean(false);
+        for (int i = 1; i <= 2000; i++) {
+            boolean writer = i % 10 == 0;
+            CompletableFuture<Permit> request = writer
+                    ? quiet.acquireWriteAsync("Pisarz-" + i)
+                    : quiet.acquireReadAsync("Czytelnik-" + i);
+            visits.add(request.thenAccept(permit -> {
+                if (quiet.getActiveReaders() > 5 || (writer && quiet.getActiveReaders() > 0)) {
+                    violationDetected.set(true);
+                }
+                permit.release();
+            }));
+        }
+        
+        assertEquals(2000, quiet.getQueueSize());
+        leave("Pisarz-0");
+        
+        CompletableFuture.allOf(visits.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+        assertFalse(violationDetected.get(), "Wykryto naruszenie zasad czytelni");
+        assertTrue(quiet.isEmpty());
+        assertEquals(0, quiet.getQueueSize());
+    }
+    
+    @Test
+    @DisplayName("tryStartReading powinien wejść od razu albo zwrócić null bez czekania")
+    void tryStartReadingShouldNotWait() {
+        Permit reader = library.tryStartReading("Czytelnik-1");
+        assertNotNull(reader);
+        assertEquals(1, library.getActiveReaders());
+        
+        assertNull(library.tryStartWriting("Pisarz-1"));
+        assertEquals(0, library.getQueueSize());
+        
+        reader.release();
+        
+        Permit writer = library.tryStartWriting("Pisarz-1");
+        assertNotNull(writer);
+        assertNull(library.tryStartReading("Czytelnik-2"));
+        assertEquals(0, library.getQueueSize());
+        
+        writer.release();
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("tryStartReading nie powinien wyprzedzać kolejki")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void tryStartReadingShouldNotBargeAheadOfQueue() throws Exception {
+        enter(library.startReading("Czytelnik-1"));
+        CompletableFuture<Permit> writer = library.acquireWriteAsync("Pisarz-1");
+        
+        assertNull(library.tryStartReading("Czytelnik-2"));
+        assertEquals(1, library.getQueueSize());
+        
+        leave("Czytelnik-1");
+        writer.get(1, TimeUnit.SECONDS).release();
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Nieudana próba wejścia bez czekania nie powinna trafiać do kolejki ani dziennika")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void failedTryStartShouldLeaveNoTrace() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        EventLog events = EventLog.synchronous(new PrintStream(output, true, StandardCharsets.UTF_8),
+                EventLog.Level.EVENTS, 1, System::nanoTime);
+        Library traced = new Library(events, false, 5, new BoundedBypassPolicy(1));
+        Permit reader = traced.startReading("Czytelnik-1");
+        CompletableFuture<Permit> writer = traced.acquireWriteAsync("Pisarz-1");
+        
+        assertNull(traced.tryStartWriting("Pisarz-2"));
+        assertNull(traced.tryStartReading("Czytelnik-2"));
+        assertEquals(1, traced.getQueueSize());
+        assertFalse(output.toString(StandardCharsets.UTF_8).contains("Pisarz-2"));
+        assertFalse(output.toString(StandardCharsets.UTF_8).contains("Czytelnik-2"));
+        
+        reader.release();
+        writer.get(1, TimeUnit.SECONDS).release();
+        assertTrue(traced.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Próba wejścia bez czekania powinna działać w trybie z preferencją odczytu")
+    void tryStartShouldWorkOnReadBiasedLibrary() {
+        Library biased = new Library(false, true);
+        
+        Permit reader = biased.tryStartReading("Czytelnik-1");
+        assertNotNull(reader);
+        assertNull(biased.tryStartWriting("Pisarz-1"));
+        assertEquals(0, biased.getQueueSize());
+        reader.release();
+        
+        Permit writer = biased.tryStartWriting("Pisarz-1");
+        assertNotNull(writer);
+        assertEquals("Pisarz-1", biased.getWriterInLibrary());
+        assertNull(biased.tryStartReading("Czytelnik-2"));
+        writer.release();
+        
+        Permit next = biased.tryStartReading("Czytelnik-2");
+        assertNotNull(next);
+        next.release();
+        assertTrue(biased.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Pisarz z limitem czasu powinien zrezygnować i wpuścić czytelników za sobą")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void timedOutWriterShouldLetReadersBehindItIn() throws Exception {
+        enter(library.startReading("Czytelnik-1"));
+        
+        CompletableFuture<Permit> writerResult = CompletableFuture.supplyAsync(() -> {
+            try {
+                return library.tryStartWriting("Pisarz-1", 300, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        });
+        while (library.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        
+        CompletableFuture<Permit> reader = library.acquireReadAsync("Czytelnik-2");
+        assertFalse(reader.isDone());
+        
+        assertNull(writerResult.get(2, TimeUnit.SECONDS));
+        
+        Permit readerPermit = reader.get(1, TimeUnit.SECONDS);
+        assertEquals(2, library.getActiveReaders());
+        assertEquals(0, library.getQueueSize());
+        
+        readerPermit.release();
+        leave("Czytelnik-1");
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Wejście z limitem czasu powinno się udać gdy miejsce zwolni się w porę")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void timedEntryShouldSucceedWhenRoomFreesInTime() throws Exception {
+        enter(library.startWriting("Pisarz-1"));
+        
+        CompletableFuture<Permit> readerResult = CompletableFuture.supplyAsync(() -> {
+            try {
+                return library.tryStartReading("Czytelnik-1", 5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        });
+        while (library.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        
+        leave("Pisarz-1");
+        
+        Permit reader = readerResult.get(1, TimeUnit.SECONDS);
+        assertNotNull(reader);
+        reader.release();
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Przerwane wejście z limitem czasu powinno rzucić wyjątek i opuścić kolejkę")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void interruptedTimedEntryShouldThrowAndLeaveQueue() throws InterruptedException {
+        enter(library.startWriting("Pisarz-1"));
+        AtomicBoolean interrupted = new AtomicBoolean(false);
+        
+        Thread reader = new Thread(() -> {
+            try {
+                library.tryStartReading("Czytelnik-1", 10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        });
+        reader.start();
+        while (library.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        
+        reader.interrupt();
+        reader.join(1000);
+        
+        assertTrue(interrupted.get());
+        assertEquals(0, library.getQueueSize());
+        leave("Pisarz-1");
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Aktualizujący powinien współistnieć z czytelnikami, ale nie z innym aktualizującym")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void updaterShouldCoexistWithReadersOnly() throws Exception {
+        Permit updater = library.startUpdating("Aktualizujący-1");
+        Permit reader = library.startReading("Czytelnik-1");
+        assertTrue(updater.isUpdater());
+        assertEquals(2, library.getActiveReaders());
+        
+        CompletableFuture<Permit> second = CompletableFuture.supplyAsync(() -> library.startUpdating("Aktualizujący-2"));
+        while (library.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        assertFalse(second.isDone());
+        
+        updater.release();
+        Permit secondPermit = second.get(1, TimeUnit.SECONDS);
+        assertTrue(secondPermit.isUpdater());
+        
+        secondPermit.release();
+        reader.release();
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Podniesienie do zapisu powinno poczekać na czytelników i wyprzedzić kolejkę")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void upgradeShouldWaitForReadersAndSkipQueue() throws Exception {
+        Permit updater = library.startUpdating("Aktualizujący-1");
+        Permit reader = library.startReading("Czytelnik-1");
+        CompletableFuture<Permit> writer = library.acquireWriteAsync("Pisarz-1");
+        
+        CompletableFuture<Permit> upgraded = CompletableFuture.supplyAsync(updater::upgrade);
+        Thread.sleep(100);
+        assertFalse(upgraded.isDone());
+        assertNull(library.tryStartReading("Czytelnik-2"));
+        
+        reader.release();
+        Permit writerPermit = upgraded.get(1, TimeUnit.SECONDS);
+        assertTrue(writerPermit.isWriter());
+        assertEquals("Aktualizujący-1", library.getWriterInLibrary());
+        assertEquals(0, library.getActiveReaders());
+        assertFalse(writer.isDone());
+        assertThrows(IllegalStateException.class, updater::release);
+        
+        writerPermit.release();
+        writer.get(1, TimeUnit.SECONDS).release();
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Obniżenie pisarza do czytelnika powinno wpuścić czekających czytelników")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void downgradeShouldAdmitWaitingReaders() throws Exception {
+        Permit writer = library.startWriting("Pisarz-1");
+        CompletableFuture<Permit> reader = library.acquireReadAsync("Czytelnik-1");
+        assertFalse(reader.isDone());
+        
+        Permit downgraded = writer.downgrade();
+        assertFalse(downgraded.isWriter());
+        assertNull(library.getWriterInLibrary());
+        
+        Permit readerPermit = reader.get(1, TimeUnit.SECONDS);
+        assertEquals(2, library.getActiveReaders());
+        assertTrue(library.getReadersInLibrary().contains("Pisarz-1"));
+        assertThrows(IllegalStateException.class, writer::release);
+        
+        downgraded.release();
+        readerPermit.release();
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Zmiana trybu nieodpowiedniej przepustki powinna rzucić wyjątek")
+    void invalidModeChangeShouldThrow() {
+        Permit reader = library.startReading("Czytelnik-1");
+        
+        assertThrows(IllegalStateException.class, reader::upgrade);
+        assertThrows(IllegalStateException.class, reader::downgrade);
+        
+        reader.release();
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Znacznik odczytu optymistycznego powinien pozostać ważny bez pisarza")
+    void optimisticStampShouldStayValidWithoutWriter() {
+        long stamp = library.tryOptimisticRead();
+        assertNotEquals(0L, stamp);
+        
+        Permit reader = library.startReading("Czytelnik-1");
+        reader.release();
+        
+        assertTrue(library.validate(stamp));
+        assertFalse(library.validate(0L));
+    }
+    
+    @Test
+    @DisplayName("Wejście pisarza powinno unieważnić znacznik odczytu optymistycznego")
+    void writerShouldInvalidateOptimisticStamp() {
+        long stamp = library.tryOptimisticRead();
+        
+        Permit writer = library.startWriting("Pisarz-1");
+        assertEquals(0L, library.tryOptimisticRead());
+        assertFalse(library.validate(stamp));
+        writer.release();
+        
+        assertFalse(library.validate(stamp));
+        assertTrue(library.validate(library.tryOptimisticRead()));
+    }
+    
+    @Test
+    @DisplayName("Nieudany odczyt optymistyczny powinien poczekać na zwykłe wejście czytelnika")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void failedOptimisticReadShouldFallBackToReading() throws Exception {
+        Permit writer = library.startWriting("Pisarz-1");
+        CompletableFuture<Integer> read = CompletableFuture.supplyAsync(
+                () -> library.readOptimistically("Czytelnik-1", library::getActiveReaders));
+        while (library.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        assertFalse(read.isDone());
+        
+        writer.release();
+        
+        assertEquals(Integer.valueOf(1), read.get(1, TimeUnit.SECONDS));
+        assertEquals(1, library.getOptimisticFallbacks());
+        assertEquals(Integer.valueOf(0), library.readOptimistically("Czytelnik-2", library::getActiveReaders));
+        assertEquals(1, library.getOptimisticFallbacks());
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Przerwany odczyt optymistyczny nie powinien czytać bez przepustki")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void interruptedOptimisticReadShouldNotReadWithoutPermit() throws Exception {
+        Permit writer = library.startWriting("Pisarz-1");
+        AtomicBoolean bodyRan = new AtomicBoolean(false);
+        AtomicBoolean stillInterrupted = new AtomicBoolean(false);
+        AtomicReference<Integer> result = new AtomicReference<>(-1);
+        Thread reader = new Thread(() -> {
+            result.set(library.readOptimistically("Czytelnik-1", () -> {
+                bodyRan.set(true);
+                return library.getActiveWriters();
+            }));
+            stillInterrupted.set(Thread.currentThread().isInterrupted());
+        });
+        reader.start();
+        while (library.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        
+        reader.interrupt();
+        reader.join(1000);
+        
+        assertFalse(reader.isAlive());
+        assertFalse(bodyRan.get());
+        assertNull(result.get());
+        assertTrue(stillInterrupted.get());
+        assertEquals(1, library.getCancelledWaits());
+        assertEquals(1, library.getActiveWriters());
+        
+        writer.release();
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Odczyt optymistyczny nie powinien zwrócić niespójnego stanu")
+    @Timeout(value = 20, unit = TimeUnit.SECONDS)
+    void optimisticReadShouldNeverSeeTornState() throws InterruptedException {
+        int[] pair = new int[2];
+        AtomicBoolean torn = new AtomicBoolean(false);
+        Thread writer = new Thread(() -> {
+            for (int i = 1; i <= 2000; i++) {
+                try (Permit permit = library.startWriting("Pisarz-1")) {
+                    pair[0] = i;
+                    Thread.yield();
+                    pair[1] = i;
+                }
+            }
+        });
+        Thread reader = new Thread(() -> {
+            for (int i = 0; i < 20000; i++) {
+                int difference = library.readOptimistically("Czytelnik-1", () -> pair[0] - pair[1]);
+                if (difference != 0) {
+                    torn.set(true);
+                }
+            }
+        });
+        writer.start();
+        reader.start();
+        writer.join();
+        reader.join();
+        
+        assertFalse(torn.get());
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Obciążenie powinno uwzględniać czytelników, pisarza i kolejkę")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void loadShouldCountReadersWriterAndQueue() throws Exception {
+        assertEquals(0, library.getLoad());
+        Permit reader = library.startReading("Czytelnik-1");
+        assertEquals(1, library.getLoad());
+        
+        CompletableFuture<Permit> writer = library.acquireWriteAsync("Pisarz-1");
+        assertEquals(2, library.getLoad());
+        
+        reader.release();
+        Permit writerPermit = writer.get(1, TimeUnit.SECONDS);
+        assertEquals(library.getMaxReaders(), library.getLoad());
+        
+        writerPermit.release();
+        assertEquals(0, library.getLoad());
+    }
+    
+    @Test
+    @DisplayName("Przerwany pisarz z czoła kolejki powinien od razu przepuścić czytelników za nim")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void interruptedWriterShouldAdmitReadersBehindIt() throws Exception {
+        Permit reader = library.startReading("Czytelnik-1");
+        AtomicBoolean writerAdmitted = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> writerAdmitted.set(library.startWriting("Pisarz-1") != null));
+        writer.start();
+        while (library.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        CompletableFuture<Permit> second = library.acquireReadAsync("Czytelnik-2");
+        assertFalse(second.isDone());
+        
+        writer.interrupt();
+        writer.join(1000);
+        
+        Permit secondPermit = second.get(1, TimeUnit.SECONDS);
+        assertFalse(writerAdmitted.get());
+        assertEquals(2, library.getActiveReaders());
+        assertEquals(1, library.getCancelledWaits());
+        
+        reader.release();
+        secondPermit.release();
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Przerywalne wejście powinno zgłosić przerwanie zamiast zwracać null")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void interruptibleStartShouldThrowWhenCancelled() throws Exception {
+        Permit writer = library.startWriting("Pisarz-1");
+        AtomicBoolean interrupted = new AtomicBoolean(false);
+        Thread reader = new Thread(() -> {
+            try {
+                library.startReadingInterruptibly("Czytelnik-1");
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        });
+        reader.start();
+        while (library.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        
+        reader.interrupt();
+        reader.join(1000);
+        
+        assertTrue(interrupted.get());
+        assertEquals(0, library.getQueueSize());
+        assertEquals(1, library.getCancelledWaits());
+        
+        writer.release();
+        Permit permit = library.startWritingInterruptibly("Pisarz-2");
+        assertNotNull(permit);
+        permit.release();
+        
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class, () -> library.startReadingInterruptibly("Czytelnik-2"));
+        assertFalse(Thread.interrupted());
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Anulowanie oczekiwania asynchronicznego powinno wpuścić następnych")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void cancelledAsyncWaitShouldAdmitNext() throws Exception {
+        Permit reader = library.startReading("Czytelnik-1");
+        CompletableFuture<Permit> writer = library.acquireWriteAsync("Pisarz-1");
+        CompletableFuture<Permit> second = library.acquireReadAsync("Czytelnik-2");
+        
+        assertTrue(writer.cancel(false));
+        
+        second.get(1, TimeUnit.SECONDS).release();
+        assertEquals(1, library.getCancelledWaits());
+        assertEquals(0, library.getQueueSize());
+        reader.release();
+        assertTrue(library.isEmpty());
+    }
 }
@@ -0,0 +1,153 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockTableTest {
+    
+    private LockTable table;
+    
+    @BeforeEach
+    void setUp() {
+        table = new LockTable(4, 2, FifoPolicy::new);
+    }
+    
+    @Test
+    @DisplayName("Pisarze różnych zasobów nie powinni się blokować")
+    void writersOfDifferentKeysShouldNotBlock() {
+        LockTable.Lease first = table.startWriting("dokument-1", "Pisarz-1");
+        LockTable.Lease second = table.tryStartWriting("dokument-2", "Pisarz-2");
+        
+        assertNotNull(second);
+        assertEquals(2, table.size());
+        assertEquals(1, table.getActiveWriters("dokument-1"));
+        assertEquals(1, table.getActiveWriters("dokument-2"));
+        
+        first.release();
+        second.release();
+        assertEquals(0, table.size());
+    }
+    
+    @Test
+    @DisplayName("Każdy zasób powinien mieć własny limit czytelników i wyłączność pisarza")
+    void eachKeyShouldKeepCapacityAndExclusion() {
+        LockTable.Lease reader1 = table.startReading("dokument-1", "Czytelnik-1");
+        LockTable.Lease reader2 = table.startReading("dokument-1", "Czytelnik-2");
+        
+        assertNull(table.tryStartReading("dokument-1", "Czytelnik-3"));
+        assertNull(table.tryStartWriting("dokument-1", "Pisarz-1"));
+        assertEquals(2, table.getActiveReaders("dokument-1"));
+        
+        LockTable.Lease other = table.tryStartReading("dokument-2", "Czytelnik-3");
+        assertNotNull(other);
+        
+        reader1.release();
+        reader2.release();
+        other.release();
+        assertEquals(0, table.size());
+    }
+    
+    @Test
+    @DisplayName("Czekający na zasób powinni być wpuszczani w kolejności FIFO")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void waitersShouldBeAdmittedInFifoOrder() throws Exception {
+        LockTable.Lease writer = table.startWriting("dokument-1", "Pisarz-1");
+        CompletableFuture<LockTable.Lease> reader = CompletableFuture.supplyAsync(
+                () -> table.startReading("dokument-1", "Czytelnik-1"));
+        while (table.getQueueSize("dokument-1") < 1) {
+            Thread.sleep(10);
+        }
+        CompletableFuture<LockTable.Lease> nextWriter = CompletableFuture.supplyAsync(
+                () -> table.startWriting("dokument-1", "Pisarz-2"));
+        while (table.getQueueSize("dokument-1") < 2) {
+            Thread.sleep(10);
+        }
+        
+        writer.release();
+        LockTable.Lease readerLease = reader.get(1, TimeUnit.SECONDS);
+        assertFalse(nextWriter.isDone());
+        
+        readerLease.release();
+        nextWriter.get(1, TimeUnit.SECONDS).release();
+        assertEquals(0, table.size());
+    }
+    
+    @Test
+    @DisplayName("Bezczynne wpisy powinny być usuwane z tablicy")
+    void idleEntriesShouldBeEvicted() {
+        for (int i = 0; i < 100; i++) {
+            try (LockTable.Lease lease = table.startReading("dokument-" + i, "Czytelnik-1")) {
+                assertEquals(1, table.size());
+            }
+        }
+        
+        assertEquals(0, table.size());
+        assertEquals(100, table.getCreatedEntries());
+        assertEquals(100, table.getEvictedEntries());
+        assertEquals(0, table.getActiveReaders("dokument-1"));
+    }
+    
+    @Test
+    @DisplayName("Wielokrotne zwolnienie dzierżawy powinno rzucić wyjątek")
+    void doubleReleaseShouldThrow() {
+        LockTable.Lease first = table.startReading("dokument-1", "Czytelnik-1");
+        LockTable.Lease second = table.startReading("dokument-1", "Czytelnik-2");
+        
+        first.release();
+        assertThrows(IllegalStateException.class, first::release);
+        assertEquals(1, table.size());
+        
+        second.release();
+        assertEquals(0, table.size());
+    }
+    
+    @Test
+    @DisplayName("Współbieżny dostęp do wielu zasobów powinien zachować niezmienniki")
+    @Timeout(value = 20, unit = TimeUnit.SECONDS)
+    void concurrentAccessShouldKeepInvariants() throws InterruptedException {
+        AtomicBoolean violation = new AtomicBoolean(false);
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final int id = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    String key = "dokument-" + (i + id) % 3;
+                    boolean writer = (i + id) % 4 == 0;
+                    try (LockTable.Lease lease = writer
+                            ? table.startWriting(key, "Pisarz-" + id)
+                            : table.startReading(key, "Czytelnik-" + id)) {
+                        Library library = lease.getPermit().getLibrary();
+                        int readers = library.getActiveReaders();
+                        int writers = library.getActiveWriters();
+                        if (readers > 2 || writers > 1 || (writers == 1 && readers > 0)) {
+                            violation.set(true);
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertFalse(violation.get());
+        assertEquals(0, table.size());
+        assertEquals(table.getCreatedEntries(), table.getEvictedEntries());
+    }
+    
+    @Test
+    @DisplayName("Nieprawidłowe parametry tablicy powinny zostać odrzucone")
+    void invalidParametersShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new LockTable(0, 5, FifoPolicy::new));
+        assertThrows(IllegalArgumentException.class, () -> new LockTable(4, 0, FifoPolicy::new));
+        assertEquals(8, new LockTable(5, 5, FifoPolicy::new).getShardCount());
+        assertEquals(64, new LockTable().getShardCount());
+    }
+}
@@ -122,4 +122,44 @@ class MainTest {
         assertEquals(42, result);
         assertTrue(errContent.toString().contains("Nieprawidłowa wartość"));
     }
+    
+    @Test
+    @DisplayName("Rodzaj wątków powinien być rozpoznawany z argumentu")
+    void threadKindShouldBeParsed() {
+        assertEquals("platformowe", Main.getDefaultThreads());
+        assertFalse(Main.parseVirtualThreads("platformowe"));
+        assertTrue(Main.parseVirtualThreads("WIRTUALNE"));
+        assertThrows(IllegalArgumentException.class, () -> Main.parseVirtualThreads("zielone"));
+    }
+    
+    @Test
+    @DisplayName("Obciążenie powinno być budowane z ziarna i opisów rozkładów")
+    void workloadShouldBeParsedFromArguments() {
+        String[] args = {"1", "1", "10", "20", "5", "0", "1", "fifo", "wirtualne", "77", "wykladniczy:15"};
+        
+        Workload workload = Main.parseWorkload(args, 10, 20, 5);
+        
+        assertEquals(77, workload.getSeed());
+        assertEquals(TimeDistribution.Kind.EXPONENTIAL, workload.getReadTime().getKind());
+        assertEquals("jednostajny:10:20", workload.getWriteTime().toString());
+        assertEquals("jednostajny:0:4", workload.getReaderThinkTime().toString());
+        assertThrows(IllegalArgumentException.class,
+                () -> Main.parseWorkload(new String[] {"1", "1", "1", "1", "1", "0", "1", "fifo", "wirtualne", "x"}, 1, 1, 1));
+    }
+    
+    @Test
+    @DisplayName("Przerwa pisarzy powinna mieć własny parametr")
+    void writerThinkTimeShouldHaveItsOwnArgument() {
+        String[] shared = {"1", "1", "10", "20", "5", "0", "1", "fifo", "wirtualne", "77", "staly:10", "staly:20",
+                "staly:30"};
+        Workload sameThink = Main.parseWorkload(shared, 10, 20, 5);
+        assertEquals("staly:30", sameThink.getReaderThinkTime().toString());
+        assertEquals("staly:30", sameThink.getWriterThinkTime().toString());
+        
+        String[] separate = {"1", "1", "10", "20", "5", "0", "1", "fifo", "wirtualne", "77", "staly:10", "staly:20",
+                "staly:30", "wykladniczy:400"};
+        Workload ownThink = Main.parseWorkload(separate, 10, 20, 5);
+        assertEquals("staly:30", ownThink.getReaderThinkTime().toString());
+        assertEquals(TimeDistribution.Kind.EXPONENTIAL, ownThink.getWriterThinkTime().getKind());
+    }
 }
@@ -0,0 +1,143 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PermitTest {
+    
+    private Library library;
+    
+    @BeforeEach
+    void setUp() {
+        library = new Library(false);
+    }
+    
+    @Test
+    @DisplayName("Przepustka powinna zwalniać miejsce w try-with-resources")
+    void permitShouldReleaseInTryWithResources() {
+        try (Permit permit = library.startReading("Czytelnik-1")) {
+            assertEquals("Czytelnik-1", permit.getName());
+            assertFalse(permit.isWriter());
+            assertSame(library, permit.getLibrary());
+            assertEquals(1, library.getActiveReaders());
+        }
+        
+        assertTrue(library.isEmpty());
+        assertEquals(0, library.getActiveReaders());
+        assertEquals(1, library.getCompletedReads());
+    }
+    
+    @Test
+    @DisplayName("Podwójne zwolnienie przepustki powinno rzucić wyjątek")
+    void doubleReleaseShouldThrow() {
+        Permit reader = library.startReading("Czytelnik-1");
+        reader.release();
+        assertTrue(reader.isReleased());
+        
+        assertThrows(IllegalStateException.class, reader::release);
+        assertThrows(IllegalStateException.class, reader::close);
+        assertTrue(library.isEmpty());
+        
+        Permit writer = library.startWriting("Pisarz-1");
+        writer.close();
+        assertThrows(IllegalStateException.class, writer::release);
+        assertNull(library.getWriterInLibrary());
+    }
+    
+    @Test
+    @DisplayName("Przepustka z innej czytelni powinna zostać odrzucona")
+    void foreignPermitShouldBeRejected() {
+        Library other = new Library(false);
+        Permit foreign = other.startWriting("Pisarz-1");
+        
+        assertThrows(IllegalArgumentException.class, () -> library.release(foreign));
+        assertFalse(foreign.isReleased());
+        assertEquals(1, other.getActiveWriters());
+        
+        foreign.release();
+        assertTrue(other.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Przepustkę może zwolnić inny wątek, ale tylko jeden raz")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void permitShouldBeReleasableOnceFromAnyThread() throws Exception {
+        Permit writer = library.startWriting("Pisarz-1");
+        
+        CompletableFuture.runAsync(writer::release).get(1, TimeUnit.SECONDS);
+        assertTrue(writer.isReleased());
+        assertTrue(library.isEmpty());
+        
+        Permit reader = library.startReading("Czytelnik-1");
+        CompletableFuture<Void> first = CompletableFuture.runAsync(reader::release);
+        CompletableFuture<Void> second = CompletableFuture.runAsync(reader::release);
+        int failures = 0;
+        for (CompletableFuture<Void> release : List.of(first, second)) {
+            try {
+                release.get(1, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+                failures++;
+            }
+        }
+        assertEquals(1, failures);
+        assertTrue(library.isEmpty());
+        assertEquals(1, library.getCompletedReads());
+    }
+    
+    @Test
+    @DisplayName("Czytelnicy o tej samej nazwie nie powinni sobie przeszkadzać")
+    void readersWithSameNameShouldBeIndependent() {
+        Permit first = library.startReading("Czytelnik");
+        Permit second = library.startReading("Czytelnik");
+        assertEquals(2, library.getActiveReaders());
+        
+        first.release();
+        assertEquals(1, library.getActiveReaders());
+        assertFalse(second.isReleased());
+        assertThrows(IllegalStateException.class, first::release);
+        assertEquals(1, library.getActiveReaders());
+        
+        second.release();
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Zwolnienie przepustki powinno wpuścić czekającego pisarza")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void releaseShouldAdmitWaitingWriter() throws Exception {
+        Permit reader = library.startReading("Czytelnik-1");
+        CompletableFuture<Permit> writer = CompletableFuture.supplyAsync(() -> library.startWriting("Pisarz-1"));
+        while (library.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        
+        reader.close();
+        
+        Permit writerPermit = writer.get(1, TimeUnit.SECONDS);
+        assertTrue(writerPermit.isWriter());
+        assertEquals("Pisarz-1", library.getWriterInLibrary());
+        writerPermit.close();
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Stara metoda stopReading powinna unieważnić przepustkę")
+    @SuppressWarnings("deprecation")
+    void legacyStopShouldInvalidatePermit() {
+        library.enableReadTracking();
+        Permit reader = library.startReading("Czytelnik-1");
+        library.stopReading("Czytelnik-1");
+        
+        assertTrue(reader.isReleased());
+        assertThrows(IllegalStateException.class, reader::release);
+        assertTrue(library.isEmpty());
+    }
+}
@@ -0,0 +1,51 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolicyBenchmarkTest {
+    
+    @Test
+    @DisplayName("Pomiar powinien zwrócić wynik dla każdej polityki")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void runAllShouldReportEveryPolicy() throws InterruptedException {
+        PolicyBenchmark benchmark = new PolicyBenchmark(4, 1, 100, 100, 200, 100);
+        
+        List<PolicyBenchmark.Result> results = benchmark.runAll();
+        
+        assertEquals(5, results.size());
+        assertEquals("fifo", results.get(0).getPolicy());
+        assertEquals("fazy", results.get(3).getPolicy());
+        assertEquals("obejscie", results.get(4).getPolicy());
+        for (PolicyBenchmark.Result result : results) {
+            assertTrue(result.getReads() > 0, result.getPolicy());
+            assertTrue(result.getWrites() > 0, result.getPolicy());
+            assertTrue(result.getReadThroughput() > 0);
+            assertTrue(result.getWriteP99Nanos() >= 0);
+        }
+    }
+    
+    @Test
+    @DisplayName("Percentyl powinien wskazywać właściwy element posortowanej tablicy")
+    void percentileShouldPickSortedElement() {
+        long[] sorted = new long[100];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i + 1;
+        }
+        
+        assertEquals(99, PolicyBenchmark.percentile(sorted, 0.99));
+        assertEquals(100, PolicyBenchmark.percentile(sorted, 1.0));
+        assertEquals(0, PolicyBenchmark.percentile(new long[0], 0.99));
+    }
+    
+    @Test
+    @DisplayName("Nieprawidłowe parametry pomiaru powinny zostać odrzucone")
+    void invalidParametersShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new PolicyBenchmark(-1, 1, 100));
+        assertThrows(IllegalArgumentException.class, () -> new PolicyBenchmark(1, 1, 0));
+    }
+}
@@ -0,0 +1,72 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReaderStripesTest {
+    
+    @Test
+    @DisplayName("Pojemność powinna zostać rozdzielona między pasy bez nadwyżki")
+    void capacityShouldBeSplitAcrossStripes() {
+        ReaderStripes stripes = new ReaderStripes(4, 5);
+        
+        int acquired = 0;
+        while (stripes.tryAcquire(0) >= 0) {
+            acquired++;
+        }
+        
+        assertEquals(5, acquired);
+        assertEquals(5, stripes.sum());
+    }
+    
+    @Test
+    @DisplayName("Zajęty pas domowy powinien przekierować do kolejnego pasa")
+    void fullHomeStripeShouldProbeOtherStripes() {
+        ReaderStripes stripes = new ReaderStripes(2, 2);
+        
+        int first = stripes.tryAcquire(1);
+        int second = stripes.tryAcquire(1);
+        
+        assertEquals(1, first);
+        assertEquals(0, second);
+        assertEquals(-1, stripes.tryAcquire(1));
+        
+        stripes.release(first);
+        assertEquals(1, stripes.sum());
+        assertEquals(1, stripes.tryAcquire(0));
+    }
+    
+    @Test
+    @DisplayName("Zmiana pojemności powinna zmienić limity pasów")
+    void setCapacityShouldChangeQuotas() {
+        ReaderStripes stripes = new ReaderStripes(2, 1);
+        
+        assertTrue(stripes.tryAcquire(0) >= 0);
+        assertEquals(-1, stripes.tryAcquire(0));
+        
+        stripes.setCapacity(3);
+        assertTrue(stripes.tryAcquire(0) >= 0);
+        assertTrue(stripes.tryAcquire(0) >= 0);
+        assertEquals(-1, stripes.tryAcquire(0));
+        assertEquals(3, stripes.sum());
+    }
+    
+    @Test
+    @DisplayName("Pas domowy powinien mieścić się w zakresie")
+    void homeStripeShouldBeInRange() {
+        ReaderStripes stripes = new ReaderStripes(8, 5);
+        
+        int home = stripes.homeStripe();
+        
+        assertTrue(home >= 0 && home < stripes.stripeCount());
+        assertEquals(home, stripes.homeStripe());
+    }
+    
+    @Test
+    @DisplayName("Liczba pasów musi być potęgą dwójki")
+    void stripeCountMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new ReaderStripes(3, 5));
+        assertThrows(IllegalArgumentException.class, () -> new ReaderStripes(0, 5));
+        assertEquals(1, Integer.bitCount(ReaderStripes.defaultStripes()));
+    }
+}
@@ -27,7 +27,7 @@ class ReaderTest {
         assertEquals(1000, reader.getMinReadTime());
         assertEquals(3000, reader.getMaxReadTime());
         assertEquals(500, reader.getSleepBetweenOperations());
-        assertEquals("Czytelnik-1", reader.getName());
+        assertEquals("Czytelnik-1", reader.getReaderName());
         assertTrue(reader.isRunning());
     }
     
@@ -54,10 +54,10 @@ class ReaderTest {
             public void run() {
                 while (isRunning() && !Thread.currentThread().isInterrupted()) {
                     try {
-                        getLibrary().startReading(getReaderName());
+                        Permit permit = getLibrary().startReading(getReaderName());
                         readCount.incrementAndGet();
                         Thread.sleep(50);
-                        getLibrary().stopReading(getReaderName());
+                        permit.release();
                         Thread.sleep(10);
                     } catch (InterruptedException e) {
                         Thread.currentThread().interrupt();
@@ -70,7 +70,7 @@ class ReaderTest {
         reader.start();
         Thread.sleep(500);
         reader.stopRunning();
-        reader.join(1000);
+        reader.getWorker().join(1000);
         
         assertTrue(readCount.get() >= 3, "Czytelnik powinien przeczytać co najmniej 3 razy");
     }
@@ -84,13 +84,13 @@ class ReaderTest {
         reader.start();
         Thread.sleep(200);
         assertTrue(reader.isRunning());
-        assertTrue(reader.isAlive());
+        assertTrue(reader.getWorker().isAlive());
         
         reader.stopRunning();
-        reader.join(2000);
+        reader.getWorker().join(2000);
         
         assertFalse(reader.isRunning());
-        assertFalse(reader.isAlive());
+        assertFalse(reader.getWorker().isAlive());
     }
     
     @Test
@@ -102,10 +102,10 @@ class ReaderTest {
         reader.start();
         Thread.sleep(100);
         
-        reader.interrupt();
-        reader.join(2000);
+        reader.getWorker().interrupt();
+        reader.getWorker().join(2000);
         
-        assertFalse(reader.isAlive());
+        assertFalse(reader.getWorker().isAlive());
     }
     
     @Test
@@ -123,7 +123,7 @@ class ReaderTest {
         
         boolean anyActive = false;
         for (Reader reader : readers) {
-            if (reader.isAlive()) {
+            if (reader.getWorker().isAlive()) {
                 anyActive = true;
                 break;
             }
@@ -135,13 +135,13 @@ class ReaderTest {
         }
         
         for (Reader reader : readers) {
-            reader.join(2000);
+            reader.getWorker().join(2000);
         }
         
         Thread.sleep(200);
         
         for (Reader reader : readers) {
-            assertFalse(reader.isAlive());
+            assertFalse(reader.getWorker().isAlive());
         }
     }
     
@@ -156,9 +156,9 @@ class ReaderTest {
         reader.start();
         Thread.sleep(300);
         reader.stopRunning();
-        reader.join(1000);
+        reader.getWorker().join(1000);
         
-        assertFalse(reader.isAlive());
+        assertFalse(reader.getWorker().isAlive());
     }
     
     @Test
@@ -172,9 +172,9 @@ class ReaderTest {
         reader.start();
         Thread.sleep(300);
         reader.stopRunning();
-        reader.join(1000);
+        reader.getWorker().join(1000);
         
-        assertFalse(reader.isAlive());
+        assertFalse(reader.getWorker().isAlive());
     }
     
     @Test
@@ -190,8 +190,8 @@ class ReaderTest {
         reader.stopRunning();
         assertFalse(reader.isRunning());
         
-        reader.join(2000);
-        assertFalse(reader.isAlive());
+        reader.getWorker().join(2000);
+        assertFalse(reader.getWorker().isAlive());
     }
     
     @Test
@@ -206,8 +206,8 @@ class ReaderTest {
         reader.start();
         Thread.sleep(200);
         
-        reader.join(1000);
-        assertFalse(reader.isAlive());
+        reader.getWorker().join(1000);
+        assertFalse(reader.getWorker().isAlive());
         assertEquals(0, library.getActiveReaders());
     }
     
@@ -221,10 +221,10 @@ class ReaderTest {
         Thread.sleep(200);
         
         reader.stopRunning();
-        reader.interrupt();
+        reader.getWorker().interrupt();
         
-        reader.join(2000);
-        assertFalse(reader.isAlive());
+        reader.getWorker().join(2000);
+        assertFalse(reader.getWorker().isAlive());
         assertFalse(reader.isRunning());
     }
     
@@ -239,8 +239,50 @@ class ReaderTest {
         
         reader.setRunning(false);
         
-        reader.join(3000);
-        assertFalse(reader.isAlive());
+        reader.getWorker().join(3000);
+        assertFalse(reader.getWorker().isAlive());
         assertFalse(reader.isRunning());
     }
+    
+    @Test
+    @DisplayName("Czytelnik powinien działać i zatrzymać się jako wątek wirtualny")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void readerShouldRunOnVirtualThread() throws InterruptedException {
+        Library silent = new Library(false);
+        Reader reader = new Reader(silent, "Czytelnik-1", 10, 20, 5);
+        
+        Thread worker = reader.startVirtual();
+        assertTrue(worker.isVirtual());
+        assertSame(worker, reader.getWorker());
+        assertEquals("Czytelnik-1", worker.getName());
+        while (silent.getCompletedReads() < 2) {
+            Thread.sleep(10);
+        }
+        
+        reader.stopRunning();
+        worker.join(1000);
+        
+        assertFalse(worker.isAlive());
+        assertTrue(silent.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Czytelnik powinien dać się uruchomić z podanego budowniczego wątków tylko raz")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void readerShouldStartOnceFromGivenBuilder() throws InterruptedException {
+        Library silent = new Library(false);
+        Reader reader = new Reader(silent, "Czytelnik-1", 10, 20, 5);
+        assertNull(reader.getWorker());
+        
+        Thread worker = reader.start(Thread.ofPlatform().daemon(true));
+        assertFalse(worker.isVirtual());
+        assertTrue(worker.isDaemon());
+        assertEquals("Czytelnik-1", worker.getName());
+        assertThrows(IllegalStateException.class, reader::startVirtual);
+        
+        reader.stopRunning();
+        worker.join(1000);
+        assertFalse(worker.isAlive());
+        assertTrue(silent.isEmpty());
+    }
 }
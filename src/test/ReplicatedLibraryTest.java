@@ -0,0 +1,135 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicatedLibraryTest {
+    
+    private ReplicatedLibrary library;
+    
+    @BeforeEach
+    void setUp() {
+        library = new ReplicatedLibrary(3, 2);
+    }
+    
+    @Test
+    @DisplayName("Pojemność odczytu powinna rosnąć z liczbą replik")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void readCapacityShouldScaleWithReplicas() throws Exception {
+        List<Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            permits.add(library.startReading("Czytelnik-" + i));
+        }
+        
+        assertEquals(6, library.getReadCapacity());
+        assertEquals(6, library.getActiveReaders());
+        for (Library replica : library.getReplicas()) {
+            assertEquals(2, replica.getActiveReaders());
+        }
+        
+        CompletableFuture<Permit> waiting = CompletableFuture.supplyAsync(() -> library.startReading("Czytelnik-6"));
+        while (library.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        assertFalse(waiting.isDone());
+        
+        permits.get(0).release();
+        permits.add(waiting.get(1, TimeUnit.SECONDS));
+        for (Permit permit : permits.subList(1, permits.size())) {
+            permit.release();
+        }
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Pisarz powinien zająć wszystkie repliki na wyłączność")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void writerShouldHoldEveryReplica() throws Exception {
+        LibrarySet.Grant writer = library.startWriting("Pisarz-1");
+        
+        assertEquals(3, writer.getPermits().size());
+        for (Library replica : library.getReplicas()) {
+            assertEquals("Pisarz-1", replica.getWriterInLibrary());
+        }
+        
+        CompletableFuture<Permit> reader = CompletableFuture.supplyAsync(() -> library.startReading("Czytelnik-1"));
+        while (library.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        assertFalse(reader.isDone());
+        
+        writer.release();
+        reader.get(1, TimeUnit.SECONDS).release();
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Czytelnik powinien trafić do najmniej obciążonej repliki")
+    void readerShouldPickLeastLoadedReplica() {
+        Library busy = library.getReplicas().get(0);
+        Permit first = busy.startReading("Czytelnik-1");
+        Permit second = library.getReplicas().get(1).startReading("Czytelnik-2");
+        
+        Permit routed = library.startReading("Czytelnik-3");
+        
+        assertSame(library.getReplicas().get(2), routed.getLibrary());
+        first.release();
+        second.release();
+        routed.release();
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Współbieżni pisarze i czytelnicy nie powinni widzieć rozbieżnych replik")
+    @Timeout(value = 20, unit = TimeUnit.SECONDS)
+    void concurrentAccessShouldKeepReplicasConsistent() throws InterruptedException {
+        int[] values = new int[3];
+        AtomicBoolean violation = new AtomicBoolean(false);
+        Thread[] threads = new Thread[6];
+        for (int t = 0; t < threads.length; t++) {
+            final boolean writer = t < 2;
+            final String name = (writer ? "Pisarz-" : "Czytelnik-") + t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 300; i++) {
+                    if (writer) {
+                        try (LibrarySet.Grant grant = library.startWriting(name)) {
+                            for (int r = 0; r < values.length; r++) {
+                                values[r]++;
+                            }
+                        }
+                    } else {
+                        try (Permit permit = library.startReading(name)) {
+                            int replica = library.getReplicas().indexOf(permit.getLibrary());
+                            if (permit.getLibrary().getActiveWriters() != 0 || values[replica] != values[0]) {
+                                violation.set(true);
+                            }
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertFalse(violation.get());
+        assertEquals(600, values[2]);
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Nieprawidłowa liczba replik powinna zostać odrzucona")
+    void invalidReplicaCountShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ReplicatedLibrary(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new ReplicatedLibrary(2, 0));
+    }
+}
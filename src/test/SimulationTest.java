@@ -0,0 +1,185 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationTest {
+    
+    private static final TimeDistribution ONE_HOUR = TimeDistribution.constant(3_600_000);
+    
+    private static EventLog capture(ByteArrayOutputStream output) {
+        return new EventLog(new PrintStream(output, true, StandardCharsets.UTF_8), EventLog.Level.EVENTS, 1);
+    }
+    
+    private static List<String> withoutTimestamps(ByteArrayOutputStream output) {
+        List<String> lines = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (line.startsWith("[")) {
+                lines.add(line.substring(line.indexOf(']') + 2));
+            }
+        }
+        return lines;
+    }
+    
+    @Test
+    @DisplayName("Symulacja powinna dać ten sam ślad zdarzeń co prawdziwa czytelnia")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void simulationShouldReproduceLibraryTrace() throws Exception {
+        ByteArrayOutputStream real = new ByteArrayOutputStream();
+        EventLog realEvents = capture(real);
+        Library library = new Library(realEvents, false, 5, new FifoPolicy());
+        Permit first = library.startReading("Czytelnik-1");
+        CompletableFuture<Permit> writer = CompletableFuture.supplyAsync(() -> library.startWriting("Pisarz-1"));
+        while (library.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        CompletableFuture<Permit> second = CompletableFuture.supplyAsync(() -> library.startReading("Czytelnik-2"));
+        while (library.getQueueSize() < 2) {
+            Thread.sleep(10);
+        }
+        first.release();
+        writer.get(1, TimeUnit.SECONDS).release();
+        second.get(1, TimeUnit.SECONDS).release();
+        realEvents.close();
+        
+        ByteArrayOutputStream simulated = new ByteArrayOutputStream();
+        Workload workload = new Workload(1, TimeDistribution.constant(10), ONE_HOUR,
+                TimeDistribution.constant(5), ONE_HOUR);
+        Simulation simulation = new Simulation(workload, new FifoPolicy(), 5,
+                new PrintStream(simulated, true, StandardCharsets.UTF_8), EventLog.Level.EVENTS);
+        simulation.addReader("Czytelnik-1", 0);
+        simulation.addWriter("Pisarz-1", 1);
+        simulation.addReader("Czytelnik-2", 2);
+        Simulation.Result result = simulation.run(100, TimeUnit.MILLISECONDS);
+        simulation.close();
+        
+        assertEquals(withoutTimestamps(real), withoutTimestamps(simulated));
+        assertTrue(simulated.toString(StandardCharsets.UTF_8).contains(
+                "[    25.000 ms] Czytelnik-2 (czytelnik) WYCHODZI z czytelni"));
+        assertEquals(2, result.getCompletedReads());
+        assertEquals(1, result.getCompletedWrites());
+        assertEquals(13_000_000L, result.getMaxReadWaitNanos());
+        assertEquals(9_000_000L, result.getMaxWriteWaitNanos());
+    }
+    
+    @Test
+    @DisplayName("To samo ziarno powinno dać identyczny przebieg symulacji")
+    void sameSeedShouldReproduceRun() {
+        Simulation.Result first = simulate(7, new FifoPolicy());
+        Simulation.Result second = simulate(7, new FifoPolicy());
+        
+        assertEquals(first.getProcessedEvents(), second.getProcessedEvents());
+        assertEquals(first.getCompletedReads(), second.getCompletedReads());
+        assertEquals(first.getCompletedWrites(), second.getCompletedWrites());
+        assertEquals(first.getMaxReadWaitNanos(), second.getMaxReadWaitNanos());
+        assertEquals(first.getMeanWriteWaitNanos(), second.getMeanWriteWaitNanos());
+        assertNotEquals(first.getProcessedEvents(), simulate(8, new FifoPolicy()).getProcessedEvents());
+    }
+    
+    @Test
+    @DisplayName("Symulacja powinna sterować prawdziwą czytelnią i dawać powtarzalny ślad")
+    void simulationShouldDriveRealLibraryWithRepeatableTrace() {
+        String first = trace(11);
+        
+        assertEquals(first, trace(11));
+        assertNotEquals(first, trace(12));
+        assertTrue(first.contains("chce wejść do czytelni"));
+        assertTrue(first.contains("(pisarz) WCHODZI do czytelni"));
+        
+        try (Simulation simulation = new Simulation(Workload.uniform(1, 10, 20, 5), new PhaseFairPolicy(), 3)) {
+            simulation.addReaders(4);
+            simulation.run(1, TimeUnit.SECONDS);
+            assertTrue(simulation.getLibrary().getAdmissionPolicy() instanceof PhaseFairPolicy);
+            assertEquals(simulation.getActiveReaders(), simulation.getLibrary().getActiveReaders());
+            assertTrue(simulation.getLibrary().getCompletedReads() > 0);
+        }
+        assertFalse(EventLog.silent().isClosed());
+    }
+    
+    private static String trace(long seed) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (Simulation simulation = new Simulation(Workload.uniform(seed, 10, 50, 20), new FifoPolicy(), 2,
+                new PrintStream(output, true, StandardCharsets.UTF_8), EventLog.Level.EVENTS)) {
+            simulation.addReaders(6);
+            simulation.addWriters(2);
+            simulation.run(2, TimeUnit.SECONDS);
+        }
+        return output.toString(StandardCharsets.UTF_8);
+    }
+    
+    @Test
+    @DisplayName("Wywołanie z wiersza poleceń powinno wypisać ślad zdarzeń")
+    void commandLineShouldPrintTrace() {
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+        try {
+            Main.main(new String[] {"symulacja", "3", "1", "1", "5", "fifo", "1"});
+        } finally {
+            System.setOut(originalOut);
+        }
+        
+        String text = output.toString(StandardCharsets.UTF_8);
+        assertTrue(text.contains("SYMULACJA: 3 czytelników, 1 pisarzy, 1 min"));
+        assertTrue(text.contains("Czytelnik-1 (czytelnik) WCHODZI do czytelni | czytelnicy=1"));
+        assertTrue(text.contains("Pisarz-1 (pisarz) WYCHODZI z czytelni"));
+        assertTrue(text.contains("Odczyty: "));
+    }
+    
+    private static Simulation.Result simulate(long seed, AdmissionPolicy policy) {
+        Simulation simulation = new Simulation(Workload.uniform(seed, 10, 50, 20), policy, 5);
+        simulation.addReaders(20);
+        simulation.addWriters(3);
+        return simulation.run(10, TimeUnit.MINUTES);
+    }
+    
+    @Test
+    @DisplayName("Doba obciążenia z tysiącami uczestników powinna trwać sekundy")
+    @Timeout(value = 20, unit = TimeUnit.SECONDS)
+    void fullDayShouldFinishQuickly() {
+        Simulation simulation = new Simulation(Workload.uniform(42, 1000, 3000, 500), new FifoPolicy(), 5);
+        simulation.addReaders(2000);
+        simulation.addWriters(200);
+        
+        Simulation.Result result = simulation.run(24, TimeUnit.HOURS);
+        
+        assertEquals(TimeUnit.HOURS.toNanos(24), result.getSimulatedNanos());
+        assertTrue(result.getCompletedReads() > 0);
+        assertTrue(result.getCompletedWrites() > 0);
+        assertTrue(result.getProcessedEvents() > 2 * (result.getCompletedReads() + result.getCompletedWrites()));
+    }
+    
+    @Test
+    @DisplayName("Każda polityka powinna zachować wyłączność pisarza i limit miejsc")
+    void everyPolicyShouldKeepInvariants() {
+        for (String name : new String[] {"fifo", "czytelnicy", "pisarze", "fazy", "obejscie"}) {
+            Simulation simulation = new Simulation(Workload.uniform(3, 5, 30, 10), AdmissionPolicy.byName(name), 3);
+            simulation.addReaders(12);
+            simulation.addWriters(4);
+            for (int step = 0; step < 5_000; step++) {
+                simulation.run(1, TimeUnit.MILLISECONDS);
+                int readers = simulation.getActiveReaders();
+                int writers = simulation.getActiveWriters();
+                assertTrue(readers <= 3, name);
+                assertTrue(writers <= 1, name);
+                assertFalse(readers > 0 && writers > 0, name);
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Nieprawidłowa pojemność symulowanej czytelni powinna zostać odrzucona")
+    void invalidCapacityShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new Simulation(Workload.uniform(1, 10, 20, 5), new FifoPolicy(), 0));
+    }
+}
@@ -0,0 +1,82 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeDistributionTest {
+    
+    private static double sampleMean(TimeDistribution distribution, int samples) {
+        SplittableRandom random = new SplittableRandom(42);
+        double sum = 0;
+        for (int i = 0; i < samples; i++) {
+            sum += distribution.sample(random);
+        }
+        return sum / samples;
+    }
+    
+    @Test
+    @DisplayName("Rozkład stały i jednostajny powinny mieścić się w zadanych granicach")
+    void constantAndUniformShouldStayInBounds() {
+        SplittableRandom random = new SplittableRandom(1);
+        TimeDistribution uniform = TimeDistribution.uniform(10, 20);
+        for (int i = 0; i < 1000; i++) {
+            long value = uniform.sample(random);
+            assertTrue(value >= 10 && value <= 20, String.valueOf(value));
+        }
+        assertEquals(7, TimeDistribution.constant(7).sample(random));
+        assertEquals(15.0, uniform.getMean());
+    }
+    
+    @Test
+    @DisplayName("Średnie próbek powinny zbiegać do średnich rozkładów")
+    void sampleMeansShouldMatchDistributions() {
+        TimeDistribution exponential = TimeDistribution.exponential(100);
+        TimeDistribution logNormal = TimeDistribution.logNormal(100, 0.5);
+        TimeDistribution pareto = TimeDistribution.pareto(100, 3);
+        
+        assertEquals(exponential.getMean(), sampleMean(exponential, 100_000), 2.0);
+        assertEquals(logNormal.getMean(), sampleMean(logNormal, 100_000), 2.0);
+        assertEquals(pareto.getMean(), sampleMean(pareto, 100_000), 3.0);
+        assertEquals(Double.POSITIVE_INFINITY, TimeDistribution.pareto(100, 1).getMean());
+    }
+    
+    @Test
+    @DisplayName("Rozkład Pareto powinien mieć cięższy ogon niż wykładniczy o tej samej średniej")
+    void paretoShouldHaveHeavierTail() {
+        TimeDistribution pareto = TimeDistribution.pareto(50, 2);
+        TimeDistribution exponential = TimeDistribution.exponential(pareto.getMean());
+        SplittableRandom random = new SplittableRandom(7);
+        long paretoMax = 0;
+        long exponentialMax = 0;
+        for (int i = 0; i < 100_000; i++) {
+            paretoMax = Math.max(paretoMax, pareto.sample(random));
+            exponentialMax = Math.max(exponentialMax, exponential.sample(random));
+        }
+        
+        assertTrue(paretoMax > 2 * exponentialMax, paretoMax + " / " + exponentialMax);
+    }
+    
+    @Test
+    @DisplayName("Opis tekstowy powinien tworzyć odpowiedni rozkład")
+    void parseShouldBuildDistribution() {
+        assertEquals(TimeDistribution.Kind.CONSTANT, TimeDistribution.parse("staly:5").getKind());
+        assertEquals(TimeDistribution.Kind.UNIFORM, TimeDistribution.parse("jednostajny:1:9").getKind());
+        assertEquals(TimeDistribution.Kind.EXPONENTIAL, TimeDistribution.parse("wykladniczy:30").getKind());
+        assertEquals(TimeDistribution.Kind.LOG_NORMAL, TimeDistribution.parse("LogNormalny:30:0.4").getKind());
+        assertEquals("pareto:10.0:1.5", TimeDistribution.parse("pareto:10:1.5").toString());
+        assertEquals("jednostajny:1:9", TimeDistribution.parse("jednostajny:1:9").toString());
+    }
+    
+    @Test
+    @DisplayName("Nieprawidłowe opisy i parametry powinny zostać odrzucone")
+    void invalidSpecsShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> TimeDistribution.parse("normalny:5"));
+        assertThrows(IllegalArgumentException.class, () -> TimeDistribution.parse("wykladniczy"));
+        assertThrows(IllegalArgumentException.class, () -> TimeDistribution.parse("staly:abc"));
+        assertThrows(IllegalArgumentException.class, () -> TimeDistribution.uniform(5, 1));
+        assertThrows(IllegalArgumentException.class, () -> TimeDistribution.pareto(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> TimeDistribution.exponential(-1));
+    }
+}
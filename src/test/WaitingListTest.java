@@ -0,0 +1,78 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitingListTest {
+    
+    private static class Entry extends WaitingList.Node<Entry> {
+        final String name;
+        
+        Entry(String name) {
+            this.name = name;
+        }
+    }
+    
+    private static List<String> names(WaitingList<Entry> list) {
+        List<String> names = new ArrayList<>();
+        for (Entry entry = list.peekFirst(); entry != null; entry = entry.next) {
+            names.add(entry.name);
+        }
+        return names;
+    }
+    
+    @Test
+    @DisplayName("Lista powinna zachować kolejność dodawania")
+    void listShouldKeepInsertionOrder() {
+        WaitingList<Entry> list = new WaitingList<>();
+        list.addLast(new Entry("A"));
+        list.addLast(new Entry("B"));
+        list.addLast(new Entry("C"));
+        
+        assertEquals(List.of("A", "B", "C"), names(list));
+        assertEquals(3, list.size());
+    }
+    
+    @Test
+    @DisplayName("Usunięcie ze środka i z końca powinno zachować spójność listy")
+    void removalShouldRelinkNeighbours() {
+        WaitingList<Entry> list = new WaitingList<>();
+        Entry a = new Entry("A");
+        Entry b = new Entry("B");
+        Entry c = new Entry("C");
+        list.addLast(a);
+        list.addLast(b);
+        list.addLast(c);
+        
+        list.remove(b);
+        assertEquals(List.of("A", "C"), names(list));
+        assertNull(b.prev);
+        assertNull(b.next);
+        
+        list.remove(c);
+        list.addLast(new Entry("D"));
+        assertEquals(List.of("A", "D"), names(list));
+        
+        list.remove(a);
+        assertEquals(List.of("D"), names(list));
+        assertEquals(1, list.size());
+    }
+    
+    @Test
+    @DisplayName("Ponowne usunięcie tego samego węzła nie powinno nic zmieniać")
+    void repeatedRemovalShouldBeIgnored() {
+        WaitingList<Entry> list = new WaitingList<>();
+        Entry a = new Entry("A");
+        list.addLast(a);
+        list.addLast(new Entry("B"));
+        
+        list.remove(a);
+        list.remove(a);
+        
+        assertEquals(List.of("B"), names(list));
+        assertEquals(1, list.size());
+    }
+}
@@ -0,0 +1,89 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkloadTest {
+    
+    private static Workload heavyTailed(long seed) {
+        return new Workload(seed,
+                TimeDistribution.logNormal(20, 1.0), TimeDistribution.exponential(5),
+                TimeDistribution.pareto(10, 1.5), TimeDistribution.constant(3));
+    }
+    
+    private static long[] draw(Workload.Source source, int count) {
+        long[] values = new long[2 * count];
+        for (int i = 0; i < count; i++) {
+            values[2 * i] = source.nextServiceMillis();
+            values[2 * i + 1] = source.nextThinkMillis();
+        }
+        return values;
+    }
+    
+    @Test
+    @DisplayName("To samo ziarno powinno dawać identyczne ciągi czasów")
+    void sameSeedShouldReproduceSequences() {
+        assertArrayEquals(draw(heavyTailed(123).readerSource("Czytelnik-1"), 1000),
+                draw(heavyTailed(123).readerSource("Czytelnik-1"), 1000));
+        assertArrayEquals(draw(heavyTailed(123).writerSource("Pisarz-1"), 1000),
+                draw(heavyTailed(123).writerSource("Pisarz-1"), 1000));
+    }
+    
+    @Test
+    @DisplayName("Różne ziarna i uczestnicy powinni dostawać różne ciągi")
+    void differentSeedsAndParticipantsShouldDiffer() {
+        Workload workload = heavyTailed(123);
+        
+        assertFalse(Arrays.equals(draw(workload.readerSource("Czytelnik-1"), 100),
+                draw(heavyTailed(124).readerSource("Czytelnik-1"), 100)));
+        assertFalse(Arrays.equals(draw(workload.readerSource("Czytelnik-1"), 100),
+                draw(workload.readerSource("Czytelnik-2"), 100)));
+        long[] writer = draw(workload.writerSource("Pisarz-1"), 100);
+        for (int i = 1; i < writer.length; i += 2) {
+            assertEquals(3, writer[i]);
+        }
+    }
+    
+    @Test
+    @DisplayName("Obciążenie jednostajne powinno odpowiadać dawnym zakresom czasów")
+    void uniformWorkloadShouldMatchLegacyRanges() {
+        Workload workload = Workload.uniform(9, 100, 200, 50);
+        Workload.Source source = workload.readerSource("Czytelnik-1");
+        for (int i = 0; i < 1000; i++) {
+            long service = source.nextServiceMillis();
+            long think = source.nextThinkMillis();
+            assertTrue(service >= 100 && service <= 200);
+            assertTrue(think >= 0 && think < 50);
+        }
+        assertEquals(0, Workload.uniform(9, 1, 2, 0).writerSource("Pisarz-1").nextThinkMillis());
+        assertEquals(9, workload.getSeed());
+    }
+    
+    @Test
+    @DisplayName("Czytelnik i pisarz powinni pracować według zadanego obciążenia")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void participantsShouldUseWorkload() throws InterruptedException {
+        Library library = new Library(false);
+        Workload workload = new Workload(5,
+                TimeDistribution.constant(1), TimeDistribution.constant(0),
+                TimeDistribution.exponential(1), TimeDistribution.constant(1));
+        Reader reader = new Reader(library, "Czytelnik-1", workload);
+        Writer writer = new Writer(library, "Pisarz-1", workload);
+        
+        reader.start();
+        writer.start();
+        while (library.getCompletedReads() < 5) {
+            Thread.sleep(10);
+        }
+        reader.stopRunning();
+        writer.stopRunning();
+        reader.getWorker().join(1000);
+        writer.getWorker().join(1000);
+        
+        assertTrue(library.isEmpty());
+    }
+}
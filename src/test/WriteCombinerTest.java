@@ -0,0 +1,192 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteCombinerTest {
+    
+    private Library library;
+    private long counter;
+    
+    @BeforeEach
+    void setUp() {
+        library = new Library(false);
+        counter = 0;
+    }
+    
+    @Test
+    @DisplayName("Pojedynczy zapis powinien zwrócić wynik operacji")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void singleWriteShouldReturnResult() throws InterruptedException {
+        String result = library.submitWrite("Pisarz-1", () -> {
+            assertEquals(1, library.getActiveWriters());
+            assertEquals(0, library.getActiveReaders());
+            return "zapisano";
+        });
+        
+        assertEquals("zapisano", result);
+        assertEquals(1, library.getCombinedBatches());
+        assertEquals(1, library.getCombinedWrites());
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Zapisy wielu pisarzy powinny być łączone w mniej sekcji wyłącznych")
+    @Timeout(value = 20, unit = TimeUnit.SECONDS)
+    void concurrentWritesShouldBeCombined() throws InterruptedException {
+        int threads = 8;
+        int perThread = 20;
+        AtomicBoolean overlap = new AtomicBoolean(false);
+        Thread[] writers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final String name = "Pisarz-" + t;
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    try {
+                        library.submitWrite(name, () -> {
+                            if (library.getActiveReaders() != 0) {
+                                overlap.set(true);
+                            }
+                            long value = counter;
+                            LockSupport.parkNanos(200_000);
+                            counter = value + 1;
+                            return null;
+                        });
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        
+        assertEquals(threads * perThread, counter);
+        assertEquals(threads * perThread, library.getCombinedWrites());
+        assertTrue(library.getCombinedBatches() < library.getCombinedWrites());
+        assertFalse(overlap.get());
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Wyjątek operacji powinien trafić do zgłaszającego pisarza")
+    void operationFailureShouldReachSubmitter() throws InterruptedException {
+        assertThrows(IllegalStateException.class, () -> library.submitWrite("Pisarz-1", () -> {
+            throw new IllegalStateException("błąd zapisu");
+        }));
+        
+        assertTrue(library.isEmpty());
+        assertEquals(Integer.valueOf(7), library.submitWrite("Pisarz-2", () -> 7));
+    }
+    
+    @Test
+    @DisplayName("Ukryty wyjątek sprawdzany operacji powinien trafić do zgłaszającego zamiast go zawiesić")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void checkedFailureShouldReachSubmitter() throws InterruptedException {
+        CountDownLatch combining = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        Thread combiner = new Thread(() -> {
+            try {
+                library.submitWrite("Pisarz-1", () -> {
+                    combining.countDown();
+                    awaitQuietly(proceed);
+                    return 1;
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        combiner.start();
+        combining.await();
+        
+        IOException failure = new IOException("błąd zapisu");
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread submitter = new Thread(() -> {
+            try {
+                library.submitWrite("Pisarz-2", () -> WriteCombinerTest.<RuntimeException>sneakyThrow(failure));
+            } catch (Throwable e) {
+                thrown.set(e);
+            }
+        });
+        submitter.start();
+        while (submitter.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        proceed.countDown();
+        
+        submitter.join();
+        combiner.join();
+        assertSame(failure, thrown.get());
+        assertTrue(library.isEmpty());
+        assertEquals(Integer.valueOf(7), library.submitWrite("Pisarz-3", () -> 7));
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> Integer sneakyThrow(Throwable failure) throws E {
+        throw (E) failure;
+    }
+    
+    @Test
+    @DisplayName("Przerwany oczekujący pisarz powinien wycofać swoją operację")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void interruptedSubmitterShouldCancelOperation() throws Exception {
+        Permit reader = library.startReading("Czytelnik-1");
+        AtomicBoolean cancelledRan = new AtomicBoolean(false);
+        AtomicBoolean interrupted = new AtomicBoolean(false);
+        
+        Thread combiner = new Thread(() -> {
+            try {
+                library.submitWrite("Pisarz-1", () -> null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        combiner.start();
+        while (library.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+        
+        Thread waiter = new Thread(() -> {
+            try {
+                library.submitWrite("Pisarz-2", () -> {
+                    cancelledRan.set(true);
+                    return null;
+                });
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        });
+        waiter.start();
+        Thread.sleep(100);
+        waiter.interrupt();
+        waiter.join(1000);
+        
+        reader.release();
+        combiner.join(1000);
+        
+        assertTrue(interrupted.get());
+        assertFalse(cancelledRan.get());
+        assertEquals(1, library.getCombinedWrites());
+        assertTrue(library.isEmpty());
+    }
+}
@@ -27,7 +27,7 @@ class WriterTest {
         assertEquals(1000, writer.getMinWriteTime());
         assertEquals(3000, writer.getMaxWriteTime());
         assertEquals(500, writer.getSleepBetweenOperations());
-        assertEquals("Pisarz-1", writer.getName());
+        assertEquals("Pisarz-1", writer.getWriterName());
         assertTrue(writer.isRunning());
     }
     
@@ -54,10 +54,10 @@ class WriterTest {
             public void run() {
                 while (isRunning() && !Thread.currentThread().isInterrupted()) {
                     try {
-                        getLibrary().startWriting(getWriterName());
+                        Permit permit = getLibrary().startWriting(getWriterName());
                         writeCount.incrementAndGet();
                         Thread.sleep(50);
-                        getLibrary().stopWriting(getWriterName());
+                        permit.release();
                         Thread.sleep(10);
                     } catch (InterruptedException e) {
                         Thread.currentThread().interrupt();
@@ -70,7 +70,7 @@ class WriterTest {
         writer.start();
         Thread.sleep(500);
         writer.stopRunning();
-        writer.join(1000);
+        writer.getWorker().join(1000);
         
         assertTrue(writeCount.get() >= 3, "Pisarz powinien napisać co najmniej 3 razy");
     }
@@ -84,13 +84,13 @@ class WriterTest {
         writer.start();
         Thread.sleep(200);
         assertTrue(writer.isRunning());
-        assertTrue(writer.isAlive());
+        assertTrue(writer.getWorker().isAlive());
         
         writer.stopRunning();
-        writer.join(2000);
+        writer.getWorker().join(2000);
         
         assertFalse(writer.isRunning());
-        assertFalse(writer.isAlive());
+        assertFalse(writer.getWorker().isAlive());
     }
     
     @Test
@@ -102,10 +102,10 @@ class WriterTest {
         writer.start();
         Thread.sleep(100);
         
-        writer.interrupt();
-        writer.join(2000);
+        writer.getWorker().interrupt();
+        writer.getWorker().join(2000);
         
-        assertFalse(writer.isAlive());
+        assertFalse(writer.getWorker().isAlive());
     }
     
     @Test
@@ -128,13 +128,13 @@ class WriterTest {
         }
         
         for (Writer writer : writers) {
-            writer.join(2000);
+            writer.getWorker().join(2000);
         }
         
         Thread.sleep(200);
         
         for (Writer writer : writers) {
-            assertFalse(writer.isAlive());
+            assertFalse(writer.getWorker().isAlive());
         }
     }
     
@@ -149,9 +149,9 @@ class WriterTest {
         writer.start();
         Thread.sleep(300);
         writer.stopRunning();
-        writer.join(1000);
+        writer.getWorker().join(1000);
         
-        assertFalse(writer.isAlive());
+        assertFalse(writer.getWorker().isAlive());
     }
     
     @Test
@@ -165,9 +165,9 @@ class WriterTest {
         writer.start();
         Thread.sleep(300);
         writer.stopRunning();
-        writer.join(1000);
+        writer.getWorker().join(1000);
         
-        assertFalse(writer.isAlive());
+        assertFalse(writer.getWorker().isAlive());
     }
     
     @Test
@@ -188,15 +188,15 @@ class WriterTest {
         reader1.stopRunning();
         reader2.stopRunning();
         
-        writer.join(2000);
-        reader1.join(2000);
-        reader2.join(2000);
+        writer.getWorker().join(2000);
+        reader1.getWorker().join(2000);
+        reader2.getWorker().join(2000);
         
         Thread.sleep(200);
         
-        assertFalse(writer.isAlive());
-        assertFalse(reader1.isAlive());
-        assertFalse(reader2.isAlive());
+        assertFalse(writer.getWorker().isAlive());
+        assertFalse(reader1.getWorker().isAlive());
+        assertFalse(reader2.getWorker().isAlive());
     }
     
     @Test
@@ -212,8 +212,8 @@ class WriterTest {
         writer.stopRunning();
         assertFalse(writer.isRunning());
         
-        writer.join(2000);
-        assertFalse(writer.isAlive());
+        writer.getWorker().join(2000);
+        assertFalse(writer.getWorker().isAlive());
     }
     
     @Test
@@ -228,8 +228,8 @@ class WriterTest {
         writer.start();
         Thread.sleep(200);
         
-        writer.join(1000);
-        assertFalse(writer.isAlive());
+        writer.getWorker().join(1000);
+        assertFalse(writer.getWorker().isAlive());
         assertEquals(0, library.getActiveWriters());
     }
     
@@ -243,10 +243,10 @@ class WriterTest {
         Thread.sleep(200);
         
         writer.stopRunning();
-        writer.interrupt();
+        writer.getWorker().interrupt();
         
-        writer.join(2000);
-        assertFalse(writer.isAlive());
+        writer.getWorker().join(2000);
+        assertFalse(writer.getWorker().isAlive());
         assertFalse(writer.isRunning());
     }
     
@@ -261,8 +261,44 @@ class WriterTest {
         
         writer.setRunning(false);
         
-        writer.join(3000);
-        assertFalse(writer.isAlive());
+        writer.getWorker().join(3000);
+        assertFalse(writer.getWorker().isAlive());
         assertFalse(writer.isRunning());
     }
+    
+    @Test
+    @DisplayName("Pisarz w trybie łączenia powinien zgłaszać zapisy do czytelni")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void combiningWriterShouldSubmitWrites() throws InterruptedException {
+        Writer writer = new Writer(library, "Pisarz-1", 10, 20, 10, true);
+        assertTrue(writer.isCombining());
+        
+        writer.start();
+        Thread.sleep(200);
+        writer.stopRunning();
+        writer.getWorker().join(1000);
+        
+        assertFalse(writer.getWorker().isAlive());
+        assertTrue(library.getCombinedWrites() > 0);
+        assertTrue(library.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Pisarz powinien działać i zatrzymać się jako wątek wirtualny")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void writerShouldRunOnVirtualThread() throws InterruptedException {
+        Library silent = new Library(false);
+        Writer writer = new Writer(silent, "Pisarz-1", 10, 20, 5);
+        
+        Thread worker = writer.startVirtual();
+        assertTrue(worker.isVirtual());
+        assertSame(worker, writer.getWorker());
+        Thread.sleep(100);
+        
+        writer.stopRunning();
+        worker.join(1000);
+        
+        assertFalse(worker.isAlive());
+        assertTrue(silent.isEmpty());
+    }
 }